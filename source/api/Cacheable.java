@@ -0,0 +1,40 @@
+package api;
+
+/**
+ * Implemented by tasks whose value depends only on their own parameters, so
+ * that the {@link api.Space Space} can reuse the value computed by an equal
+ * task, possibly of an earlier job, instead of executing the task again.
+ * Values are cached both for tasks that compute them directly and for tasks
+ * that compose them from their subtasks.
+ *
+ * @author Manasa Chandrasekhar
+ * @author Kowshik Prakasam
+ */
+public interface Cacheable<T> {
+
+	/**
+	 *
+	 * @return Key shared by all tasks that compute the same value, whichever
+	 *         job they belong to and wherever they are located in it, or null
+	 *         if the value of this task is not to be cached. Keys are compared
+	 *         with equals and hashCode.
+	 */
+	Object getCacheKey();
+
+	/**
+	 *
+	 * @return Approximate size of the value of this task, in bytes
+	 */
+	long getCacheWeight();
+
+	/**
+	 * Adapts a value cached for an equal task to this task, e.g. to its
+	 * location in the job. The cached value may be shared by several jobs, so
+	 * it must not be modified.
+	 *
+	 * @param cachedValue
+	 *            Value computed by a task with the same cache key
+	 * @return Value of this task
+	 */
+	T fromCache(T cachedValue);
+}
@@ -1,5 +1,7 @@
 package api;
 
+import java.util.List;
+
 /**
  * Represents a raw computing resource where tasks ({@link api.Task Task}) are
  * automatically executed by registered workers as soon as they are dropped in.
@@ -22,35 +24,76 @@ public interface Space extends java.rmi.Remote {
 	String SERVICE_NAME = "Space";
 
 	/**
-	 * The client decomposes a complex computation into smaller ones, each
-	 * represented by a set of {@link api.Task Task} objects, and passes them to
-	 * the Space via this method. In principle, these {@link api.Task Task}
-	 * objects are processed in parallel by workers.
+	 * The client passes the root {@link api.Task Task} of a computation to the
+	 * Space via this method. The task is decomposed into smaller ones, which
+	 * are processed in parallel by workers. Every call starts a new job, which
+	 * is tracked separately from all other jobs running in the Space, so
+	 * several clients can use the same Space concurrently.
 	 * 
-	 * @param task task to be added to the space
+	 * @param task root task of the job to be added to the space
+	 * @return Handle of the job, to be passed to {@link #takeResult(long) takeResult(long)}
 	 * @throws java.rmi.RemoteException Thrown if any read/write errors occur during the process of adding a task to the queue
 	 */
 
-	void put(Task<?> task) throws java.rmi.RemoteException;
+	long put(Task<?> task) throws java.rmi.RemoteException;
 
 	/**
-	 * After passing all the task objects to the {@link api.Space Space}, the
-	 * client retrieves the associated {@link api.Result Result} objects via the
-	 * take method. This method blocks until a {@link api.Result Result} object
-	 * is available to return to the client. Thus, if the client sent 10
-	 * {@link api.Task Task} objects to the {@link api.Space Space}, it could
-	 * execute: <br>
+	 * Same as {@link #put(Task) put(Task)}, except that the values of the
+	 * job's leaf tasks, i.e. those that did not decompose, can be streamed to
+	 * the client as soon as they are computed, long before the result of the
+	 * root task is composed. Tasks of the job are held back while too many
+	 * leaf values are waiting to be polled, so that a slow client bounds the
+	 * memory held by the compute space for it. A client could execute : <br>
 	 * <br>
 	 * 
 	 * <pre>
-	 * Result[] results = new Result[10];
-	 * for (int i = 0; i &lt; results.length; i++) {
-	 * 	results[i] = takeResult(); // waits for a result to become available.
+	 * long jobId = space.put(task, true);
+	 * List&lt;?&gt; values;
+	 * while ((values = space.pollLeafValues(jobId, 100, 16)) != null) {
+	 * 	// display the values received so far
 	 * }
+	 * Result&lt;?&gt; result = space.takeResult(jobId);
 	 * </pre>
 	 * 
-	 * @return One of the results obtained upon completion of individual tasks
+	 * @param task root task of the job to be added to the space
+	 * @param streaming whether leaf values are to be kept for {@link #pollLeafValues(long, long, int) pollLeafValues(long, long, int)}
+	 * @return Handle of the job
 	 * @throws java.rmi.RemoteException
 	 */
-	Result<?> takeResult() throws java.rmi.RemoteException;
+	long put(Task<?> task, boolean streaming) throws java.rmi.RemoteException;
+
+	/**
+	 * Waits up to the given time for leaf values of a job submitted with
+	 * streaming, and returns the values computed since the previous call, up
+	 * to the given number. The stream must be drained before
+	 * {@link #takeResult(long) takeResult(long)} is called, since the job is
+	 * forgotten once its result has been taken.
+	 * 
+	 * @param jobId handle returned by {@link #put(Task, boolean) put(Task, boolean)}
+	 * @param timeoutMillis longest time to wait for a value, in milliseconds
+	 * @param maxValues largest number of values returned, at least 1
+	 * @return Leaf values in the order in which they were computed, an empty list if none was computed within the timeout, or null once all leaf values of the job have been returned
+	 * @throws java.rmi.RemoteException
+	 */
+	List<?> pollLeafValues(long jobId, long timeoutMillis, int maxValues)
+			throws java.rmi.RemoteException;
+
+	/**
+	 * After passing the root task of a job to the {@link api.Space Space}, the
+	 * client retrieves the associated {@link api.Result Result} object via the
+	 * take method. This method blocks until the {@link api.Result Result}
+	 * object of the job is available to return to the client. Thus, a client
+	 * could execute: <br>
+	 * <br>
+	 * 
+	 * <pre>
+	 * long jobId = space.put(task);
+	 * Result&lt;?&gt; result = space.takeResult(jobId); // waits for the job to finish.
+	 * </pre>
+	 * 
+	 * @param jobId handle returned by {@link #put(Task) put(Task)}
+	 * @return The result obtained upon completion of the job
+	 * @throws java.rmi.RemoteException Also thrown if a task of the job threw an exception, which is the cause
+	 */
+	Result<?> takeResult(long jobId) throws java.rmi.RemoteException;
 }
\ No newline at end of file
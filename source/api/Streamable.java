@@ -0,0 +1,24 @@
+package api;
+
+/**
+ * Implemented by tasks whose values may not be needed by their parent once
+ * they have been streamed to the client, as with jobs that only deliver their
+ * result through {@link api.Space#pollLeafValues(long, long, int)
+ * Space.pollLeafValues}. The {@link api.Space Space} then hands a placeholder
+ * over to the parent instead of the value, so that streamed values are
+ * neither kept by the compute space nor sent back to a computer for
+ * composition.
+ *
+ * @author Manasa Chandrasekhar
+ * @author Kowshik Prakasam
+ */
+public interface Streamable<T> {
+
+	/**
+	 *
+	 * @return Value handed over to the parent task in place of the value of
+	 *         this task once it has been streamed, or null if the parent
+	 *         composes the value itself
+	 */
+	T getPlaceholder();
+}
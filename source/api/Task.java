@@ -7,6 +7,7 @@ import java.util.List;
  * href="http://en.wikipedia.org/wiki/Divide_and_conquer_algorithm">Divide and
  * conquer algorithm</a>. Every task in the Divide and Conquer tree is
  * identified by an ID. The parent of each task is identified by a parentID.
+ * IDs are encoded as described by {@link api.TaskId TaskId}.
  * 
  * @author Manasa Chandrasekhar
  * @author Kowshik Prakasam
@@ -85,27 +86,42 @@ public interface Task<T> {
 	 * 
 	 * @return ID of the parent task in the recursion tree
 	 */
-	String getParentId();
+	long getParentId();
 
 	/**
 	 * 
 	 * Sets the ID of the parent task in the recursion tree
 	 */
-	void setParentId(String id);
+	void setParentId(long id);
 
 	/**
 	 * 
 	 * @return Unique ID representing this task in the recursion tree
 	 */
 
-	String getId();
+	long getId();
 
 	/**
 	 * 
 	 * Sets a unique ID representing this task in the recursion tree
 	 */
 
-	void setId(String taskId);
+	void setId(long taskId);
+
+	/**
+	 * 
+	 * @return Handle of the job this task belongs to, assigned by the
+	 *         {@link api.Space Space}
+	 */
+	long getJobId();
+
+	/**
+	 * 
+	 * Sets the handle of the job this task belongs to. Used by a
+	 * {@link api.Space Space} object to tag the root task of a job and every
+	 * subtask generated from it.
+	 */
+	void setJobId(long jobId);
 
 	/**
 	 * 
@@ -120,6 +136,18 @@ public interface Task<T> {
 	 * @return Unique IDs of all child tasks generated by this task at the end
 	 *         of the DECOMPOSE ('Divide') phase
 	 */
-	List<String> getChildIds();
+	long[] getChildIds();
+
+	/**
+	 * Defines the granularity below which it is not worth distributing the
+	 * recursion any further. A {@link system.Computer Computer} that receives a
+	 * task for which this method returns true decomposes and composes the
+	 * whole subtree rooted at the task in-process, and only returns the final
+	 * value to the {@link api.Space Space}.
+	 * 
+	 * @return True if the subtree rooted at this task is small enough to be
+	 *         executed sequentially on a single machine
+	 */
+	boolean isSequential();
 	
 }
@@ -0,0 +1,112 @@
+package api;
+
+/**
+ * Encodes the unique ID of a {@link api.Task Task} in the Divide and Conquer
+ * tree as a single <code>long</code>. The level of the task in the recursion
+ * tree is packed into the {@value #LEVEL_BITS} most significant bits, and the
+ * index of the task within its level into the remaining {@value #INDEX_BITS}
+ * bits. The children of the task with index <i>i</i> and decomposition size
+ * <i>d</i> have the indices <i>i * d</i> to <i>i * d + d - 1</i> on the next
+ * level.
+ * 
+ * @author Manasa Chandrasekhar
+ * @author Kowshik Prakasam
+ */
+public final class TaskId {
+
+	/**
+	 * Number of bits used to store the level of a task
+	 */
+	public static final int LEVEL_BITS = 8;
+
+	/**
+	 * Number of bits used to store the index of a task within its level
+	 */
+	public static final int INDEX_BITS = Long.SIZE - LEVEL_BITS;
+
+	private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+
+	private static final int MAX_LEVEL = (1 << LEVEL_BITS) - 1;
+
+	private TaskId() {
+	}
+
+	/**
+	 * 
+	 * @param level
+	 *            Level of the task in the recursion tree
+	 * @param index
+	 *            Index of the task within its level
+	 * @return ID of the task
+	 * @throws IllegalArgumentException
+	 *             If the level or the index does not fit in its bits, since
+	 *             two tasks would then share the same ID
+	 */
+	public static long valueOf(int level, long index) {
+		if (level < 0 || level > MAX_LEVEL) {
+			throw new IllegalArgumentException("Level " + level
+					+ " does not fit in " + LEVEL_BITS + " bits");
+		}
+		if (index < 0 || index > INDEX_MASK) {
+			throw new IllegalArgumentException("Index " + index
+					+ " does not fit in " + INDEX_BITS + " bits");
+		}
+		return ((long) level << INDEX_BITS) | index;
+	}
+
+	/**
+	 * 
+	 * @param id
+	 *            ID of a task
+	 * @return Level of the task in the recursion tree
+	 */
+	public static int getLevel(long id) {
+		return (int) (id >>> INDEX_BITS);
+	}
+
+	/**
+	 * 
+	 * @param id
+	 *            ID of a task
+	 * @return Index of the task within its level
+	 */
+	public static long getIndex(long id) {
+		return id & INDEX_MASK;
+	}
+
+	/**
+	 * 
+	 * @param parentId
+	 *            ID of a task
+	 * @param decompositionSize
+	 *            Number of subtasks generated by the task
+	 * @param childNumber
+	 *            Position of the subtask among its siblings, starting from 0
+	 * @return ID of the subtask
+	 * @throws IllegalArgumentException
+	 *             If the recursion tree is too deep or too wide for the
+	 *             subtask to have a unique ID
+	 */
+	public static long getChildId(long parentId, int decompositionSize,
+			int childNumber) {
+		long firstChildIndex;
+		try {
+			firstChildIndex = Math.multiplyExact(getIndex(parentId),
+					(long) decompositionSize);
+		} catch (ArithmeticException e) {
+			throw new IllegalArgumentException("Children of task "
+					+ toString(parentId) + " overflow the index bits", e);
+		}
+		return valueOf(getLevel(parentId) + 1, firstChildIndex + childNumber);
+	}
+
+	/**
+	 * 
+	 * @param id
+	 *            ID of a task
+	 * @return Human readable form of the ID, as <i>level-index</i>
+	 */
+	public static String toString(long id) {
+		return getLevel(id) + "-" + getIndex(id);
+	}
+}
@@ -0,0 +1,89 @@
+package benchmarks;
+
+import tasks.MandelbrotKernel;
+import tasks.MandelbrotSetTask;
+import tasks.MarianiSilverKernel;
+import tasks.ScalarMandelbrotKernel;
+import tasks.MandelbrotSetTask.MandelbrotSetTaskResult;
+
+/**
+ * Compares the {@link tasks.MarianiSilverKernel MarianiSilverKernel} with the
+ * {@link tasks.ScalarMandelbrotKernel ScalarMandelbrotKernel} on 1024 pixel
+ * wide views, from views dominated by the interior of the set outside of the
+ * main cardioid and period-2 bulb, to the default view of
+ * {@link client.MandelbrotSetClient MandelbrotSetClient}. The number of pixels
+ * whose counts differ from the scalar kernel is reported along with the times.
+ *
+ * @author Manasa Chandrasekhar
+ * @author Kowshik Prakasam
+ */
+public class MandelbrotBorderTracingBenchmark {
+
+	private static final int PIXELS = 1024;
+	private static final int REPETITIONS = 5;
+
+	private static final Object[][] VIEWS = {
+			{ "whole set", -2.0, -2.0, 4.0, 512 },
+			{ "whole set, deep", -2.0, -2.0, 4.0, 4096 },
+			{ "cardioid edge", -0.8, -0.2, 0.4, 4096 },
+			{ "period-3 bulb", -0.25, 0.6, 0.25, 4096 },
+			{ "minibrot", -1.7864, -0.0175, 0.035, 4096 },
+			{ "client default", -0.7510975859375, 0.1315680625, 0.01611, 512 },
+			{ "elephant valley", 0.25, -0.05, 0.1, 1024 } };
+
+	public static void main(String[] args) {
+		MandelbrotKernel scalar = new ScalarMandelbrotKernel();
+		MandelbrotKernel borderTracing = new MarianiSilverKernel();
+		System.out.printf("%-20s %8s %12s %14s %9s %10s%n", "view", "limit",
+				"scalar ms", "tracing ms", "speedup", "differing");
+		for (Object[] aView : VIEWS) {
+			double jump = (Double) aView[3] / PIXELS;
+			double[] xValues = MandelbrotSetTask.getCoordinates(
+					(Double) aView[1], 0, PIXELS, jump);
+			double[] yValues = MandelbrotSetTask.getCoordinates(
+					(Double) aView[2], 0, PIXELS, jump);
+			int iterLimit = (Integer) aView[4];
+
+			MandelbrotSetTaskResult reference = new MandelbrotSetTaskResult(0,
+					0, PIXELS, PIXELS, iterLimit);
+			double scalarMillis = measure(scalar, reference, xValues, yValues,
+					jump, iterLimit);
+			MandelbrotSetTaskResult traced = new MandelbrotSetTaskResult(0, 0,
+					PIXELS, PIXELS, iterLimit);
+			double tracingMillis = measure(borderTracing, traced, xValues,
+					yValues, jump, iterLimit);
+
+			System.out.printf("%-20s %8d %12.1f %14.1f %8.1fx %10d%n",
+					aView[0], iterLimit, scalarMillis, tracingMillis,
+					scalarMillis / tracingMillis, countDiffering(reference,
+							traced));
+		}
+	}
+
+	// Best of a few renders, in milliseconds, after a warm up render
+	private static double measure(MandelbrotKernel kernel,
+			MandelbrotSetTaskResult tile, double[] xValues, double[] yValues,
+			double jump, int iterLimit) {
+		kernel.computeTile(tile, xValues, yValues, jump, iterLimit);
+		double best = Double.MAX_VALUE;
+		for (int repetition = 0; repetition < REPETITIONS; repetition++) {
+			long start = System.nanoTime();
+			kernel.computeTile(tile, xValues, yValues, jump, iterLimit);
+			best = Math.min(best, (System.nanoTime() - start) / 1e6);
+		}
+		return best;
+	}
+
+	private static int countDiffering(MandelbrotSetTaskResult expected,
+			MandelbrotSetTaskResult actual) {
+		int differing = 0;
+		for (int i = 0; i < PIXELS; i++) {
+			for (int j = 0; j < PIXELS; j++) {
+				if (expected.getValue(i, j) != actual.getValue(i, j)) {
+					differing++;
+				}
+			}
+		}
+		return differing;
+	}
+}
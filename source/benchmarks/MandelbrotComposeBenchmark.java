@@ -0,0 +1,133 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import tasks.MandelbrotSetTask;
+import tasks.MandelbrotSetTask.MandelbrotSetTaskResult;
+
+/**
+ * Measures the compose phase of the Mandelbrot Set computation, which
+ * assembles the tiles computed by the subtasks of the root task into the
+ * final image, for 1024, 4096 and 16384 pixel wide images.
+ *
+ * The row-wise copy of {@link tasks.MandelbrotSetTask#compose(List)
+ * MandelbrotSetTask.compose} is compared with the original compose phase,
+ * which copied one pixel at a time between int[][] arrays and boxed two
+ * Doubles per pixel to compute its indices. Results are printed in
+ * milliseconds per compose, and as "-" when the heap is too small for the
+ * original layout.
+ *
+ * @author Manasa Chandrasekhar
+ * @author Kowshik Prakasam
+ */
+public class MandelbrotComposeBenchmark {
+
+	private static final int[] IMAGE_SIZES = { 1024, 4096, 16384 };
+	private static final int TILES_PER_SIDE = 4;
+	private static final int ITERATION_LIMIT = 512;
+	private static final long PIXELS_PER_MEASUREMENT = 1L << 26;
+
+	/**
+	 * A tile in the original layout
+	 */
+	private static class LegacyTile {
+		int x;
+		int y;
+		int[][] values;
+
+		LegacyTile(int x, int y, int[][] values) {
+			this.x = x;
+			this.y = y;
+			this.values = values;
+		}
+	}
+
+	public static void main(String[] args) {
+		System.out.printf("%8s %14s %14s%n", "pixels", "original ms",
+				"row copy ms");
+		for (int n : IMAGE_SIZES) {
+			int repetitions = (int) Math.max(1, PIXELS_PER_MEASUREMENT
+					/ ((long) n * n));
+			String rowCopyMillis = format(measureRowCopy(n, repetitions));
+			String originalMillis = format(measureOriginal(n, repetitions));
+			System.out.printf("%8d %14s %14s%n", n, originalMillis,
+					rowCopyMillis);
+		}
+	}
+
+	// Milliseconds per compose of MandelbrotSetTask, or -1 if out of memory
+	private static double measureRowCopy(int n, int repetitions) {
+		try {
+			MandelbrotSetTask root = new MandelbrotSetTask(-2, -2, 4, n,
+					ITERATION_LIMIT);
+			int tileSize = n / TILES_PER_SIDE;
+			List<MandelbrotSetTaskResult> tiles = new ArrayList<MandelbrotSetTaskResult>();
+			for (int i = 0; i < TILES_PER_SIDE; i++) {
+				for (int j = 0; j < TILES_PER_SIDE; j++) {
+					MandelbrotSetTaskResult tile = new MandelbrotSetTaskResult(
+							i * tileSize, j * tileSize, tileSize, tileSize,
+							ITERATION_LIMIT);
+					tile.setValue(0, 0, i + j);
+					tiles.add(tile);
+				}
+			}
+			root.compose(tiles);
+			long start = System.nanoTime();
+			for (int repetition = 0; repetition < repetitions; repetition++) {
+				root.compose(tiles);
+			}
+			return (System.nanoTime() - start) / 1e6 / repetitions;
+		} catch (OutOfMemoryError e) {
+			return -1;
+		}
+	}
+
+	// Milliseconds per compose in the original layout, or -1 if out of memory
+	private static double measureOriginal(int n, int repetitions) {
+		try {
+			int tileSize = n / TILES_PER_SIDE;
+			List<LegacyTile> tiles = new ArrayList<LegacyTile>();
+			for (int i = 0; i < TILES_PER_SIDE; i++) {
+				for (int j = 0; j < TILES_PER_SIDE; j++) {
+					int[][] values = new int[tileSize][tileSize];
+					values[0][0] = i + j;
+					tiles.add(new LegacyTile(i * tileSize, j * tileSize,
+							values));
+				}
+			}
+			composeOriginal(tiles, n);
+			long start = System.nanoTime();
+			for (int repetition = 0; repetition < repetitions; repetition++) {
+				composeOriginal(tiles, n);
+			}
+			return (System.nanoTime() - start) / 1e6 / repetitions;
+		} catch (OutOfMemoryError e) {
+			return -1;
+		}
+	}
+
+	// The original compose phase of MandelbrotSetTask, boxing included
+	@SuppressWarnings("removal")
+	private static int[][] composeOriginal(List<LegacyTile> listOfChunks, int n) {
+		int[][] allValues = new int[n][n];
+		for (LegacyTile chunk : listOfChunks) {
+			int[][] values = chunk.values;
+			int startX = chunk.x;
+			int startY = chunk.y;
+			for (int valuesRow = 0; valuesRow < values.length; valuesRow++) {
+				for (int valuesCol = 0; valuesCol < values[0].length; valuesCol++) {
+					int actualX = new Double(valuesRow + startX).intValue();
+					int actualY = new Double(n - 1 - (valuesCol + startY))
+							.intValue();
+					allValues[actualX][actualY] = values[valuesRow][valuesCol];
+				}
+			}
+		}
+		return allValues;
+	}
+
+	private static String format(double millis) {
+		return millis < 0 ? "-" : String.format("%.2f", millis);
+	}
+}
@@ -0,0 +1,107 @@
+package benchmarks;
+
+import tasks.MandelbrotSetTask;
+
+/**
+ * Compares the escape time kernel of {@link tasks.MandelbrotSetTask
+ * MandelbrotSetTask} with the original kernel, which took two square roots per
+ * iteration and iterated interior points up to the iteration limit. Every view
+ * is rendered on the same pixel grid by both kernels, and the iteration counts
+ * are checked to be identical before the times are reported.
+ *
+ * @author Manasa Chandrasekhar
+ * @author Kowshik Prakasam
+ */
+public class MandelbrotKernelBenchmark {
+
+	private static final int PIXELS = 512;
+	private static final int MANDELBROT_LIMIT = 2;
+
+	/**
+	 * A square region of the complex plane
+	 */
+	private static class View {
+		private String name;
+		private double lowerX;
+		private double lowerY;
+		private double edgeLength;
+		private int iterLimit;
+
+		View(String name, double lowerX, double lowerY, double edgeLength,
+				int iterLimit) {
+			this.name = name;
+			this.lowerX = lowerX;
+			this.lowerY = lowerY;
+			this.edgeLength = edgeLength;
+			this.iterLimit = iterLimit;
+		}
+	}
+
+	private static final View[] VIEWS = {
+			new View("whole set", -2, -2, 4, 512),
+			new View("whole set, deep", -2, -2, 4, 4096),
+			new View("seahorse valley", -0.7510975859375, 0.1315680625,
+					0.01611, 512),
+			new View("cardioid interior", -0.5, -0.25, 0.5, 4096),
+			new View("elephant valley", 0.25, -0.05, 0.1, 1024) };
+
+	public static void main(String[] args) {
+		System.out.printf("%-20s %8s %14s %14s %9s %10s%n", "view", "limit",
+				"original ms", "optimized ms", "speedup", "identical");
+		for (View aView : VIEWS) {
+			// Warm up both kernels
+			render(aView, false);
+			render(aView, true);
+
+			long start = System.nanoTime();
+			int[] original = render(aView, false);
+			double originalMillis = (System.nanoTime() - start) / 1e6;
+			start = System.nanoTime();
+			int[] optimized = render(aView, true);
+			double optimizedMillis = (System.nanoTime() - start) / 1e6;
+
+			System.out.printf("%-20s %8d %14.1f %14.1f %8.1fx %10s%n",
+					aView.name, aView.iterLimit, originalMillis,
+					optimizedMillis, originalMillis / optimizedMillis,
+					java.util.Arrays.equals(original, optimized));
+		}
+	}
+
+	// Walks the pixel grid in the same way as MandelbrotSetTask
+	private static int[] render(View aView, boolean optimized) {
+		int[] counts = new int[PIXELS * PIXELS];
+		double jump = aView.edgeLength / PIXELS;
+		int i = 0, j = 0;
+		for (double xIndex = aView.lowerX; i < PIXELS; xIndex += jump, i++) {
+			j = 0;
+			for (double yIndex = aView.lowerY; j < PIXELS; yIndex += jump, j++) {
+				counts[i * PIXELS + j] = optimized ? MandelbrotSetTask
+						.escapeTime(xIndex, yIndex, aView.iterLimit)
+						: originalEscapeTime(xIndex, yIndex, aView.iterLimit);
+			}
+		}
+		return counts;
+	}
+
+	// The original kernel of MandelbrotSetTask
+	private static int originalEscapeTime(double zLowerReal,
+			double zLowerComplex, int iterLimit) {
+		double zReal = zLowerReal;
+		double zComplex = zLowerComplex;
+		int k;
+		for (k = 0; k < iterLimit
+				&& (modulus(zReal, zComplex) <= MANDELBROT_LIMIT); k++) {
+			double zPrevReal = zReal;
+			zReal = zReal * zReal - zComplex * zComplex + zLowerReal;
+			zComplex = 2 * zPrevReal * zComplex + zLowerComplex;
+		}
+		if (modulus(zReal, zComplex) <= MANDELBROT_LIMIT) {
+			return iterLimit;
+		}
+		return k;
+	}
+
+	private static double modulus(double zReal, double zComplex) {
+		return Math.sqrt(zReal * zReal + zComplex * zComplex);
+	}
+}
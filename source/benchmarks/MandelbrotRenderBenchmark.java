@@ -0,0 +1,91 @@
+package benchmarks;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import tasks.MandelbrotSetTask.MandelbrotSetTaskResult;
+import client.MandelbrotSetRenderer;
+
+/**
+ * Measures how long the client takes to turn a tile of iteration counts into
+ * an image, for 1024, 4096 and 8192 pixel wide images. The original display
+ * code, which set the colour and filled a 1 X 1 rectangle through Java2D for
+ * every pixel, is compared with the {@link client.MandelbrotSetRenderer
+ * MandelbrotSetRenderer}, which writes palette entries into the image's
+ * raster in parallel. Both produce the same image, which is checked for every
+ * size.
+ *
+ * @author Manasa Chandrasekhar
+ * @author Kowshik Prakasam
+ */
+public class MandelbrotRenderBenchmark {
+
+	private static final int[] IMAGE_SIZES = { 1024, 4096, 8192 };
+	private static final int ITERATION_LIMIT = 512;
+	private static final int REPETITIONS = 5;
+
+	public static void main(String[] args) {
+		int[] palette = new int[ITERATION_LIMIT + 1];
+		Color[] colours = new Color[ITERATION_LIMIT + 1];
+		Random random = new Random(0);
+		for (int count = 0; count <= ITERATION_LIMIT; count++) {
+			colours[count] = new Color(random.nextInt(0x1000000));
+			palette[count] = colours[count].getRGB();
+		}
+		System.out.printf("%8s %14s %14s %10s%n", "pixels", "Java2D ms",
+				"raster ms", "same");
+		for (int n : IMAGE_SIZES) {
+			MandelbrotSetTaskResult tile = new MandelbrotSetTaskResult(0, 0, n,
+					n, ITERATION_LIMIT);
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++) {
+					tile.setValue(i, j, random.nextInt(ITERATION_LIMIT + 1));
+				}
+			}
+
+			BufferedImage java2DImage = new BufferedImage(n, n,
+					BufferedImage.TYPE_INT_ARGB);
+			double java2DMillis = Double.MAX_VALUE;
+			for (int repetition = 0; repetition < REPETITIONS; repetition++) {
+				long start = System.nanoTime();
+				Graphics graphics = java2DImage.getGraphics();
+				for (int i = 0; i < n; i++) {
+					for (int j = 0; j < n; j++) {
+						graphics.setColor(colours[tile.getValue(i, j)]);
+						graphics.fillRect(i, j, 1, 1);
+					}
+				}
+				graphics.dispose();
+				java2DMillis = Math.min(java2DMillis,
+						(System.nanoTime() - start) / 1e6);
+			}
+
+			MandelbrotSetRenderer renderer = new MandelbrotSetRenderer(n, n,
+					palette);
+			double rasterMillis = Double.MAX_VALUE;
+			for (int repetition = 0; repetition < REPETITIONS; repetition++) {
+				long start = System.nanoTime();
+				renderer.paint(tile);
+				rasterMillis = Math.min(rasterMillis,
+						(System.nanoTime() - start) / 1e6);
+			}
+
+			System.out.printf("%8d %14.1f %14.1f %10b%n", n, java2DMillis,
+					rasterMillis, sameImage(java2DImage, renderer.getImage()));
+		}
+	}
+
+	private static boolean sameImage(BufferedImage expected,
+			BufferedImage actual) {
+		for (int y = 0; y < expected.getHeight(); y++) {
+			for (int x = 0; x < expected.getWidth(); x++) {
+				if (expected.getRGB(x, y) != actual.getRGB(x, y)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,96 @@
+package benchmarks;
+
+import tasks.MandelbrotKernel;
+import tasks.MandelbrotSetTask;
+import tasks.ScalarMandelbrotKernel;
+import tasks.VectorMandelbrotKernel;
+import tasks.MandelbrotSetTask.MandelbrotSetTaskResult;
+
+/**
+ * Compares the {@link tasks.VectorMandelbrotKernel VectorMandelbrotKernel}
+ * with the {@link tasks.ScalarMandelbrotKernel ScalarMandelbrotKernel} on the
+ * views of {@link benchmarks.MandelbrotKernelBenchmark
+ * MandelbrotKernelBenchmark}, once with double lanes only and once with float
+ * lanes allowed at shallow zoom. For each vector kernel, the number of pixels
+ * whose counts differ from the scalar kernel is reported : it must be zero for
+ * double lanes. Needs the jdk.incubator.vector module.
+ *
+ * @author Manasa Chandrasekhar
+ * @author Kowshik Prakasam
+ */
+public class MandelbrotVectorBenchmark {
+
+	private static final int PIXELS = 512;
+	private static final int REPETITIONS = 10;
+
+	private static final Object[][] VIEWS = {
+			{ "whole set", -2.0, -2.0, 4.0, 512 },
+			{ "whole set, deep", -2.0, -2.0, 4.0, 4096 },
+			{ "seahorse valley", -0.7510975859375, 0.1315680625, 0.01611, 512 },
+			{ "cardioid interior", -0.5, -0.25, 0.5, 4096 },
+			{ "elephant valley", 0.25, -0.05, 0.1, 1024 } };
+
+	public static void main(String[] args) {
+		MandelbrotKernel scalar = new ScalarMandelbrotKernel();
+		MandelbrotKernel doubles = new VectorMandelbrotKernel(false);
+		MandelbrotKernel floats = new VectorMandelbrotKernel(true);
+		System.out.printf("%-20s %8s %10s %10s %8s %10s %8s %8s%n", "view",
+				"limit", "scalar ms", "double ms", "diff", "auto ms", "lanes",
+				"diff");
+		for (Object[] aView : VIEWS) {
+			String name = (String) aView[0];
+			double jump = (Double) aView[3] / PIXELS;
+			double[] xValues = MandelbrotSetTask.getCoordinates(
+					(Double) aView[1], 0, PIXELS, jump);
+			double[] yValues = MandelbrotSetTask.getCoordinates(
+					(Double) aView[2], 0, PIXELS, jump);
+			int iterLimit = (Integer) aView[4];
+
+			MandelbrotSetTaskResult reference = new MandelbrotSetTaskResult(0,
+					0, PIXELS, PIXELS, iterLimit);
+			double scalarMillis = measure(scalar, reference, xValues, yValues,
+					jump, iterLimit);
+			MandelbrotSetTaskResult doubleTile = new MandelbrotSetTaskResult(
+					0, 0, PIXELS, PIXELS, iterLimit);
+			double doubleMillis = measure(doubles, doubleTile, xValues, yValues,
+					jump, iterLimit);
+			MandelbrotSetTaskResult autoTile = new MandelbrotSetTaskResult(0,
+					0, PIXELS, PIXELS, iterLimit);
+			double autoMillis = measure(floats, autoTile, xValues, yValues, jump,
+					iterLimit);
+
+			System.out.printf("%-20s %8d %10.1f %10.1f %8d %10.1f %8s %8d%n",
+					name, iterLimit, scalarMillis, doubleMillis, countDiffering(
+							reference, doubleTile), autoMillis,
+					jump >= VectorMandelbrotKernel.SHALLOW_ZOOM_JUMP ? "float"
+							: "double", countDiffering(reference, autoTile));
+		}
+	}
+
+	// Best of a few renders, in milliseconds, after a warm up render
+	private static double measure(MandelbrotKernel kernel,
+			MandelbrotSetTaskResult tile, double[] xValues, double[] yValues,
+			double jump, int iterLimit) {
+		kernel.computeTile(tile, xValues, yValues, jump, iterLimit);
+		double best = Double.MAX_VALUE;
+		for (int repetition = 0; repetition < REPETITIONS; repetition++) {
+			long start = System.nanoTime();
+			kernel.computeTile(tile, xValues, yValues, jump, iterLimit);
+			best = Math.min(best, (System.nanoTime() - start) / 1e6);
+		}
+		return best;
+	}
+
+	private static int countDiffering(MandelbrotSetTaskResult expected,
+			MandelbrotSetTaskResult actual) {
+		int differing = 0;
+		for (int i = 0; i < PIXELS; i++) {
+			for (int j = 0; j < PIXELS; j++) {
+				if (expected.getValue(i, j) != actual.getValue(i, j)) {
+					differing++;
+				}
+			}
+		}
+		return differing;
+	}
+}
@@ -0,0 +1,157 @@
+package benchmarks;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import system.ConcurrentLongHashMap;
+import system.Successor;
+import tasks.FibonacciTask;
+import api.TaskId;
+
+/**
+ * Measures the throughput of the successor registry maintained by the compute
+ * space, for an increasing number of {@link system.ComputerProxy ComputerProxy}
+ * threads. Each thread repeatedly performs the registry operations a proxy
+ * performs for a decomposed task : it adds a {@link system.Successor
+ * Successor}, looks up its closure twice (once per child) and removes it.
+ * 
+ * Two registries are compared : a synchronized HashMap accessed under a single
+ * monitor (the compute space's original design) and the striped
+ * {@link system.ConcurrentLongHashMap ConcurrentLongHashMap}. Results are
+ * printed as registry operations per second.
+ * 
+ * @author Manasa Chandrasekhar
+ * @author Kowshik Prakasam
+ */
+public class SuccessorRegistryBenchmark {
+
+	private static final int[] PROXY_COUNTS = { 1, 2, 4, 8, 16, 32, 64, 128,
+			256 };
+	private static final long RUN_MILLIS = 1000;
+	private static final int WARMUP_RUNS = 2;
+	private static final int SUCCESSORS_PER_PROXY = 1024;
+	private static final int OPS_PER_CYCLE = 4;
+
+	/**
+	 * Operations of a successor registry, as performed by a proxy
+	 */
+	private interface Registry {
+		void add(Successor s);
+
+		Successor.Closure getClosure(long id);
+
+		void remove(long id);
+	}
+
+	/**
+	 * Registry guarded by a single monitor
+	 */
+	private static class MonitorRegistry implements Registry {
+		private Map<Long, Successor> successors = Collections
+				.synchronizedMap(new HashMap<Long, Successor>());
+
+		public synchronized void add(Successor s) {
+			successors.put(s.getId(), s);
+		}
+
+		public synchronized Successor.Closure getClosure(long id) {
+			return successors.get(id).getClosure();
+		}
+
+		public synchronized void remove(long id) {
+			successors.remove(id);
+		}
+	}
+
+	/**
+	 * Registry backed by a striped long-keyed map
+	 */
+	private static class StripedRegistry implements Registry {
+		private ConcurrentLongHashMap<Successor> successors = new ConcurrentLongHashMap<Successor>(
+				4 * Runtime.getRuntime().availableProcessors());
+
+		public void add(Successor s) {
+			successors.put(s.getId(), s);
+		}
+
+		public Successor.Closure getClosure(long id) {
+			return successors.get(id).getClosure();
+		}
+
+		public void remove(long id) {
+			successors.remove(id);
+		}
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		System.out.println("Available processors : "
+				+ Runtime.getRuntime().availableProcessors());
+		System.out.printf("%8s %20s %20s%n", "proxies", "monitor ops/sec",
+				"striped ops/sec");
+		for (int run = 0; run < WARMUP_RUNS; run++) {
+			measure(new MonitorRegistry(), PROXY_COUNTS[0]);
+			measure(new StripedRegistry(), PROXY_COUNTS[0]);
+		}
+		for (int proxies : PROXY_COUNTS) {
+			double monitorOps = measure(new MonitorRegistry(), proxies);
+			double stripedOps = measure(new StripedRegistry(), proxies);
+			System.out.printf("%8d %20.0f %20.0f%n", proxies, monitorOps,
+					stripedOps);
+		}
+	}
+
+	// Runs the given number of proxy threads against a registry and returns
+	// the number of registry operations per second
+	private static double measure(final Registry registry, int proxies)
+			throws InterruptedException {
+		final AtomicLong totalOps = new AtomicLong();
+		final CountDownLatch start = new CountDownLatch(1);
+		final long[] deadline = new long[1];
+		Thread[] threads = new Thread[proxies];
+		for (int proxy = 0; proxy < proxies; proxy++) {
+			final Successor[] successors = createSuccessors(proxy);
+			threads[proxy] = new Thread() {
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					long cycles = 0;
+					while (System.nanoTime() < deadline[0]) {
+						Successor s = successors[(int) (cycles % successors.length)];
+						registry.add(s);
+						registry.getClosure(s.getId());
+						registry.getClosure(s.getId());
+						registry.remove(s.getId());
+						cycles++;
+					}
+					totalOps.addAndGet(cycles * OPS_PER_CYCLE);
+				}
+			};
+			threads[proxy].start();
+		}
+		deadline[0] = System.nanoTime() + RUN_MILLIS * 1000000;
+		start.countDown();
+		for (Thread t : threads) {
+			t.join();
+		}
+		return totalOps.get() * 1000.0 / RUN_MILLIS;
+	}
+
+	// Successors with IDs that are unique to a proxy
+	private static Successor[] createSuccessors(int proxy) {
+		Successor[] successors = new Successor[SUCCESSORS_PER_PROXY];
+		for (int i = 0; i < successors.length; i++) {
+			FibonacciTask aTask = new FibonacciTask(2);
+			aTask.setId(TaskId.valueOf(1, (long) proxy * SUCCESSORS_PER_PROXY
+					+ i));
+			successors[i] = new Successor(aTask, null, aTask
+					.getDecompositionSize());
+		}
+		return successors;
+	}
+}
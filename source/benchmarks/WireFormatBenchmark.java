@@ -0,0 +1,351 @@
+package benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.List;
+import java.util.Vector;
+
+import system.ResultImpl;
+import tasks.FibonacciTask;
+import tasks.MandelbrotSetTask;
+import tasks.MandelbrotSetTask.MandelbrotSetTaskResult;
+import tasks.TspTask;
+import tasks.TspTask.City;
+import api.Result;
+import api.Task;
+import api.TaskId;
+
+/**
+ * Compares the hand-written wire format of tasks and results with the default
+ * Java serialization they used before, for the Fibonacci, Mandelbrot Set and
+ * TSP workloads. Three messages are measured per workload, as they cross the
+ * network between the compute space and a computer :
+ * <ul>
+ * <li>the result of decomposing the root task, carrying its subtasks</li>
+ * <li>a leaf task</li>
+ * <li>the result of a leaf task, carrying its value</li>
+ * </ul>
+ *
+ * Each message is written to a fresh object stream, as in a remote call. The
+ * legacy format is reproduced by Serializable mirror classes with the same
+ * fields as the original tasks and results, including the inner (non-static)
+ * result and city classes. Results are printed as bytes per message, bytes
+ * per task and microseconds per serialization round trip.
+ *
+ * @author Manasa Chandrasekhar
+ * @author Kowshik Prakasam
+ */
+public class WireFormatBenchmark {
+
+	private static final int ITERATIONS = 2000;
+	private static final int WARMUP_ITERATIONS = 500;
+	private static final int FIBONACCI_N = 30;
+	private static final int MANDELBROT_PIXELS = 256;
+	private static final int MANDELBROT_ITERATION_LIMIT = 4096;
+	private static final int TSP_CITIES = 12;
+
+	/**
+	 * Mirror of the original task base class
+	 */
+	private static class LegacyTaskBase implements Serializable {
+		private static final long serialVersionUID = 1L;
+		private Task.Status status = Task.Status.DECOMPOSE;
+		private long parentId;
+		private long taskId;
+		private long jobId;
+		private long startTime = System.currentTimeMillis();
+
+		LegacyTaskBase(long taskId, long parentId) {
+			this.taskId = taskId;
+			this.parentId = parentId;
+		}
+	}
+
+	/**
+	 * Mirror of the original result class
+	 */
+	private static class LegacyResultImpl<T> implements Serializable {
+		private static final long serialVersionUID = 1L;
+		private long startTime = System.currentTimeMillis();
+		private long endTime = System.currentTimeMillis();
+		private T result;
+		private List<?> subTasks;
+
+		LegacyResultImpl(T result, List<?> subTasks) {
+			this.result = result;
+			this.subTasks = subTasks;
+		}
+	}
+
+	private static class LegacyFibonacciTask extends LegacyTaskBase {
+		private static final long serialVersionUID = 1L;
+		private int n;
+
+		LegacyFibonacciTask(int n, long taskId, long parentId) {
+			super(taskId, parentId);
+			this.n = n;
+		}
+	}
+
+	private static class LegacyMandelbrotSetTask extends LegacyTaskBase {
+		private static final long serialVersionUID = 1L;
+		private double lowerX;
+		private double lowerY;
+		private double edgeLength;
+		private int n;
+		private int iterLimit;
+		private int taskSize;
+		private int chunkLocationX;
+		private int chunkLocationY;
+
+		// Inner class, as in the original, so it drags its task along
+		class Result implements Serializable {
+			private static final long serialVersionUID = 1L;
+			int x;
+			int y;
+			int[][] values;
+
+			Result(int x, int y, int[][] values) {
+				this.x = x;
+				this.y = y;
+				this.values = values;
+			}
+		}
+
+		LegacyMandelbrotSetTask(int n, int taskSize, int x, int y,
+				long taskId, long parentId) {
+			super(taskId, parentId);
+			this.lowerX = -2;
+			this.lowerY = -2;
+			this.edgeLength = 4;
+			this.n = n;
+			this.iterLimit = MANDELBROT_ITERATION_LIMIT;
+			this.taskSize = taskSize;
+			this.chunkLocationX = x;
+			this.chunkLocationY = y;
+		}
+	}
+
+	private static class LegacyTspTask extends LegacyTaskBase {
+		private static final long serialVersionUID = 1L;
+		private List<City> citiesList;
+		private City startCity;
+		private int numberOfChildren;
+
+		// Inner class, as in the original, so it drags its task along
+		class City implements Serializable {
+			private static final long serialVersionUID = 1L;
+			private double x;
+			private double y;
+			private int label;
+
+			City(int label, double x, double y) {
+				this.x = x;
+				this.y = y;
+				this.label = label;
+			}
+		}
+
+		LegacyTspTask(double[][] cities) {
+			super(TaskId.valueOf(0, 0), TaskId.valueOf(0, 0));
+			citiesList = new Vector<City>();
+			for (int cityIndex = 0; cityIndex < cities.length; cityIndex++) {
+				citiesList.add(new City(cityIndex, cities[cityIndex][0],
+						cities[cityIndex][1]));
+			}
+			startCity = citiesList.get(0);
+			numberOfChildren = citiesList.size() - 1;
+		}
+
+		LegacyTspTask(City startCity, List<City> citiesList, long taskId,
+				long parentId) {
+			super(taskId, parentId);
+			this.startCity = startCity;
+			this.citiesList = citiesList;
+			this.numberOfChildren = citiesList.size();
+		}
+
+		// Subtasks of the root, as created by the original decompose phase
+		List<LegacyTspTask> decompose() {
+			List<LegacyTspTask> subTasks = new Vector<LegacyTspTask>();
+			for (int i = 1; i < citiesList.size(); i++) {
+				List<City> childCities = new Vector<City>();
+				for (int j = 1; j < citiesList.size(); j++) {
+					if (j != i) {
+						childCities.add(citiesList.get(j));
+					}
+				}
+				subTasks.add(new LegacyTspTask(citiesList.get(i), childCities,
+						TaskId.valueOf(1, i - 1), TaskId.valueOf(0, 0)));
+			}
+			return subTasks;
+		}
+	}
+
+	/**
+	 * A message measured in both formats
+	 */
+	private static class Message {
+		private String name;
+		private Object compact;
+		private Object legacy;
+		private int numOfTasks;
+
+		Message(String name, Object compact, Object legacy, int numOfTasks) {
+			this.name = name;
+			this.compact = compact;
+			this.legacy = legacy;
+			this.numOfTasks = numOfTasks;
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		System.out.printf("%-28s %10s %10s %10s %10s %10s %10s%n", "message",
+				"legacy B", "compact B", "legacy B/t", "compact B/t",
+				"legacy us", "compact us");
+		for (Message aMessage : fibonacciMessages()) {
+			report(aMessage);
+		}
+		for (Message aMessage : mandelbrotSetMessages()) {
+			report(aMessage);
+		}
+		for (Message aMessage : tspMessages()) {
+			report(aMessage);
+		}
+	}
+
+	private static Message[] fibonacciMessages() {
+		FibonacciTask root = new FibonacciTask(FIBONACCI_N);
+		Result<Integer> decomposition = root.decompose();
+		List<Task<Integer>> subTasks = decomposition.getSubTasks();
+		Vector<LegacyFibonacciTask> legacySubTasks = new Vector<LegacyFibonacciTask>();
+		for (int i = 0; i < subTasks.size(); i++) {
+			legacySubTasks.add(new LegacyFibonacciTask(FIBONACCI_N - 1 - i,
+					subTasks.get(i).getId(), root.getId()));
+		}
+		Task<Integer> leaf = subTasks.get(0);
+		Result<Integer> leafResult = new ResultImpl<Integer>(System
+				.currentTimeMillis(), System.currentTimeMillis(), 6765);
+		return new Message[] {
+				new Message("fibonacci decomposition", decomposition,
+						new LegacyResultImpl<Integer>(null, legacySubTasks),
+						subTasks.size()),
+				new Message("fibonacci leaf task", leaf,
+						new LegacyFibonacciTask(FIBONACCI_N - 1, leaf.getId(),
+								root.getId()), 1),
+				new Message("fibonacci leaf result", leafResult,
+						new LegacyResultImpl<Integer>(leafResult.getValue(),
+								null), 1) };
+	}
+
+	private static Message[] mandelbrotSetMessages() {
+		// The subtasks of the root are leaves
+		MandelbrotSetTask root = new MandelbrotSetTask(-2, -2, 4,
+				MANDELBROT_PIXELS, MANDELBROT_ITERATION_LIMIT,
+				MANDELBROT_PIXELS / 2, false);
+		Result<MandelbrotSetTaskResult> decomposition = root.decompose();
+		List<Task<MandelbrotSetTaskResult>> subTasks = decomposition
+				.getSubTasks();
+		int taskSize = MANDELBROT_PIXELS
+				/ (int) Math.sqrt(root.getDecompositionSize());
+		Vector<LegacyMandelbrotSetTask> legacySubTasks = new Vector<LegacyMandelbrotSetTask>();
+		for (int i = 0; i < subTasks.size(); i++) {
+			legacySubTasks.add(new LegacyMandelbrotSetTask(taskSize, taskSize,
+					0, 0, subTasks.get(i).getId(), root.getId()));
+		}
+		Task<MandelbrotSetTaskResult> leaf = subTasks.get(0);
+		LegacyMandelbrotSetTask legacyLeaf = legacySubTasks.get(0);
+		Result<MandelbrotSetTaskResult> leafResult = leaf.decompose();
+		MandelbrotSetTaskResult tile = leafResult.getValue();
+		int[][] tileValues = new int[tile.getWidth()][tile.getHeight()];
+		for (int i = 0; i < tile.getWidth(); i++) {
+			for (int j = 0; j < tile.getHeight(); j++) {
+				tileValues[i][j] = tile.getValue(i, j);
+			}
+		}
+		return new Message[] {
+				new Message("mandelbrot decomposition", decomposition,
+						new LegacyResultImpl<Object>(null, legacySubTasks),
+						subTasks.size()),
+				new Message("mandelbrot leaf task", leaf, legacyLeaf, 1),
+				new Message("mandelbrot leaf result", leafResult,
+						new LegacyResultImpl<Object>(legacyLeaf.new Result(
+								tile.getX(), tile.getY(), tileValues),
+								null), 1) };
+	}
+
+	private static Message[] tspMessages() {
+		double[][] cities = new double[TSP_CITIES][2];
+		for (int i = 0; i < TSP_CITIES; i++) {
+			cities[i][0] = Math.cos(i);
+			cities[i][1] = Math.sin(i);
+		}
+		TspTask root = new TspTask(cities);
+		Result<List<City>> decomposition = root.decompose();
+		List<Task<List<City>>> subTasks = decomposition.getSubTasks();
+		LegacyTspTask legacyRoot = new LegacyTspTask(cities);
+		List<LegacyTspTask> legacySubTasks = legacyRoot.decompose();
+
+		// A route over all cities, as returned by the root's compose phase
+		List<City> route = new Vector<City>();
+		Vector<LegacyTspTask.City> legacyRoute = new Vector<LegacyTspTask.City>();
+		for (int i = 0; i < TSP_CITIES; i++) {
+			route.add(new City(i, cities[i][0], cities[i][1]));
+			legacyRoute.add(legacyRoot.citiesList.get(i));
+		}
+		Result<List<City>> routeResult = new ResultImpl<List<City>>(
+				System.currentTimeMillis(), System.currentTimeMillis(), route);
+		return new Message[] {
+				new Message("tsp decomposition", decomposition,
+						new LegacyResultImpl<Object>(null, legacySubTasks),
+						subTasks.size()),
+				new Message("tsp leaf task", subTasks.get(0), legacySubTasks
+						.get(0), 1),
+				new Message("tsp route result", routeResult,
+						new LegacyResultImpl<Object>(legacyRoute, null), 1) };
+	}
+
+	private static void report(Message aMessage) throws IOException,
+			ClassNotFoundException {
+		int legacyBytes = serialize(aMessage.legacy).length;
+		int compactBytes = serialize(aMessage.compact).length;
+		double legacyMicros = measure(aMessage.legacy);
+		double compactMicros = measure(aMessage.compact);
+		System.out.printf("%-28s %10d %10d %10d %10d %10.1f %10.1f%n",
+				aMessage.name, legacyBytes, compactBytes, legacyBytes
+						/ aMessage.numOfTasks, compactBytes
+						/ aMessage.numOfTasks, legacyMicros, compactMicros);
+	}
+
+	// Microseconds per serialization and deserialization of the message
+	private static double measure(Object message) throws IOException,
+			ClassNotFoundException {
+		for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+			deserialize(serialize(message));
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			deserialize(serialize(message));
+		}
+		return (System.nanoTime() - start) / 1000.0 / ITERATIONS;
+	}
+
+	private static byte[] serialize(Object message) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(message);
+		out.close();
+		return bytes.toByteArray();
+	}
+
+	private static Object deserialize(byte[] bytes) throws IOException,
+			ClassNotFoundException {
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(
+				bytes));
+		return in.readObject();
+	}
+}
@@ -68,7 +68,7 @@ public class FibonacciJob extends Job {
 	public void generateTasks(Space space) throws RemoteException {
 		Task<Integer> fibTask = new FibonacciTask(this.n);
 		this.startTime = System.currentTimeMillis();
-		space.put(fibTask);
+		this.jobId = space.put(fibTask);
 	}
 	/**
 	 * Gathers {@link api.Result Result} objects from the compute space and
@@ -83,7 +83,7 @@ public class FibonacciJob extends Job {
 	 */
 	@Override
 	public void collectResults(Space space) throws RemoteException {
-		Result<Integer> r = (Result<Integer>) space.takeResult();
+		Result<Integer> r = (Result<Integer>) space.takeResult(this.jobId);
 		this.fibValue = r.getValue();
 		logger.info("Elapsed Time=" + (System.currentTimeMillis() - startTime));
 		this.handler.close();
@@ -13,6 +13,12 @@ import api.Space;
  */
 public abstract class Job {
 
+	/**
+	 * Handle of the job in the compute space ({@link api.Space Space}),
+	 * obtained when its tasks are generated
+	 */
+	protected long jobId;
+
 	/**
 	 * Decomposes a complex job into a list of smaller tasks of type {@link api.Task Task}, each of which are executed remotely in a compute space ({@link
 	 * api.Space Space})
@@ -3,13 +3,13 @@ package client;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Container;
-import java.awt.Graphics;
-import java.awt.Image;
-import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.rmi.Naming;
 import java.rmi.NotBoundException;
 import java.rmi.RemoteException;
+import java.util.List;
 import java.util.logging.FileHandler;
 import java.util.logging.Handler;
 import java.util.logging.Level;
@@ -21,11 +21,14 @@ import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JScrollPane;
 
+import tasks.MandelbrotSetTask;
+import tasks.MandelbrotSetTask.MandelbrotSetTaskResult;
 import api.Space;
 
 /**
  * Computes the Mandelbrot Set for a given input on a remote machine and
- * displays the result in a GUI
+ * displays the result in a GUI, or writes it to an image file without a GUI
+ * if the mandelbrot.output property is set
  * 
  * @author Manasa Chandrasekhar
  * @author Kowshik Prakasam
@@ -34,27 +37,67 @@ public class MandelbrotSetClient {
 
 	private static final String LOG_FILE="/cs/student/kowshik/mandelbrotset_client.log";
 	
-	// Size of JFrame displayed on the screen
-	private static int N_PIXELS = 1024;
-
-	// Spectrum of colours to represent the Mandelbrot Set on the screen
-	private static Color[] myColours;
+	/*
+	 * Number of pixels along each side of the image, which is also the size of
+	 * the JFrame displayed on the screen
+	 */
+	private static final String SIZE_PROPERTY = "mandelbrot.size";
+	private static final int DEFAULT_SIZE = 1024;
 
 	// Input for the Mandelbrot Set job
 	private static final double LOWERX = -0.7510975859375;
 	private static final double LOWERY = 0.1315680625;
 	private static final double EDGE_LENGTH = 0.01611;
 	private static final int ITER_LIMIT = 512;
-	private static final int SQUARE_SIZE = 1024;
+
+	// Computes tiles with the Mariani-Silver algorithm if set to true
+	private static final String BORDER_TRACING_PROPERTY = "mandelbrot.borderTracing";
+
+	/*
+	 * Largest side of a tile computed by a single task. If not set, it is
+	 * derived from the number of tiles the image should be decomposed into.
+	 */
+	private static final String TILE_SIZE_PROPERTY = "mandelbrot.tileSize";
+	private static final String NUM_OF_TILES_PROPERTY = "mandelbrot.tiles";
+	private static final int DEFAULT_NUM_OF_TILES = 16;
+
+	/*
+	 * Paints every tile as soon as it is computed if set to true, instead of
+	 * waiting for the whole image
+	 */
+	private static final String STREAMING_PROPERTY = "mandelbrot.streaming";
+	private static final long POLL_MILLIS = 100;
+	// Largest number of tiles fetched by a single poll
+	private static final int MAX_TILES_PER_POLL = 8;
+
+	/*
+	 * If set, the client runs headless and writes the image to this file, see
+	 * MandelbrotSetImageFile, without ever holding the whole image in memory.
+	 * Unless the tile size is set, tiles are then at most MAX_BATCH_TILE_SIZE
+	 * pixels wide.
+	 */
+	private static final String OUTPUT_PROPERTY = "mandelbrot.output";
+	private static final int MAX_BATCH_TILE_SIZE = 1024;
 
 	public static void main(String[] args) throws Exception {
 
 		String computeSpaceServer = args[0];
 
+		int size = Integer.getInteger(SIZE_PROPERTY, DEFAULT_SIZE);
+		String output = System.getProperty(OUTPUT_PROPERTY, "");
+		boolean batch = output.length() > 0;
+		int tileSize = Integer.getInteger(TILE_SIZE_PROPERTY, 0);
+		if (tileSize <= 0) {
+			tileSize = MandelbrotSetTask.getTileSize(size, Integer
+					.getInteger(NUM_OF_TILES_PROPERTY, DEFAULT_NUM_OF_TILES));
+			if (batch) {
+				tileSize = Math.min(tileSize, MAX_BATCH_TILE_SIZE);
+			}
+		}
+		boolean streaming = batch || Boolean.getBoolean(STREAMING_PROPERTY);
 		MandelbrotSetJob mandelbrotJob = new MandelbrotSetJob(LOWERX, LOWERY,
-				EDGE_LENGTH, SQUARE_SIZE, ITER_LIMIT);
-
-		MandelbrotSetClient.myColours = generateColours();
+				EDGE_LENGTH, size, ITER_LIMIT, tileSize, Boolean
+						.getBoolean(BORDER_TRACING_PROPERTY), streaming, !batch);
 
 		if (System.getSecurityManager() == null) {
 			System.setSecurityManager(new SecurityManager());
@@ -72,22 +115,40 @@ public class MandelbrotSetClient {
 			Space space = (Space) Naming.lookup("//" + computeSpaceServer + "/"
 					+ Space.SERVICE_NAME);
 
+			if (batch) {
+				writeImageFile(mandelbrotJob, space, new File(output), size);
+				logger.info("Elapsed Time="
+						+ (System.currentTimeMillis() - startTime));
+				return;
+			}
+
+			MandelbrotSetRenderer renderer = new MandelbrotSetRenderer(size,
+					size, generatePalette());
+			JLabel mandelbrotLabel = new JLabel(new ImageIcon(renderer
+					.getImage()));
+
 			// ------Generate tasks and execute them remotely
 			mandelbrotJob.generateTasks(space);
+			if (streaming) {
+				// The frame is shown first, and filled in tile by tile
+				displayFrame(mandelbrotLabel);
+				List<MandelbrotSetTaskResult> tiles;
+				while ((tiles = mandelbrotJob.pollTiles(space, POLL_MILLIS,
+						MAX_TILES_PER_POLL)) != null) {
+					for (MandelbrotSetTaskResult aTile : tiles) {
+						renderer.paint(aTile);
+					}
+					mandelbrotLabel.repaint();
+				}
+			}
 			mandelbrotJob.collectResults(space);
-			int[][] values = mandelbrotJob.getAllResults();
+			MandelbrotSetTaskResult values = mandelbrotJob.getAllResults();
 			// -------------------------------------
 
-			JLabel mandelbrotLabel = displayMandelbrotSetTaskReturnValue(values);
-
-			// display JLabels: graphic images
-			JFrame frame = new JFrame("Result Visualizations");
-			frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-			Container container = frame.getContentPane();
-			container.setLayout(new BorderLayout());
-			container.add(new JScrollPane(mandelbrotLabel), BorderLayout.WEST);
-			frame.pack();
-			frame.setVisible(true);
+			if (!streaming) {
+				renderer.paint(values);
+				displayFrame(mandelbrotLabel);
+			}
 			logger.info("Elapsed Time="+(System.currentTimeMillis()-startTime));
 			
 		} catch (RemoteException e) {
@@ -104,39 +165,53 @@ public class MandelbrotSetClient {
 
 	}
 
-	private static JLabel displayMandelbrotSetTaskReturnValue(int[][] counts) {
-		Image image = new BufferedImage(N_PIXELS, N_PIXELS,
-				BufferedImage.TYPE_INT_ARGB);
-		Graphics graphics = image.getGraphics();
-		for (int i = 0; i < counts.length; i++) {
-			for (int j = 0; j < counts.length; j++) {
-				graphics.setColor(getColor(counts[i][j]));
-				graphics.fillRect(i, j, 1, 1);
+	// Writes every tile to the image file as soon as it is computed
+	private static void writeImageFile(MandelbrotSetJob mandelbrotJob,
+			Space space, File output, int size) throws IOException {
+		MandelbrotSetImageFile imageFile = new MandelbrotSetImageFile(output,
+				size, size, ITER_LIMIT);
+		try {
+			mandelbrotJob.generateTasks(space);
+			List<MandelbrotSetTaskResult> tiles;
+			while ((tiles = mandelbrotJob.pollTiles(space, POLL_MILLIS,
+					MAX_TILES_PER_POLL)) != null) {
+				for (MandelbrotSetTaskResult aTile : tiles) {
+					imageFile.write(aTile);
+				}
 			}
+			mandelbrotJob.collectResults(space);
+		} finally {
+			imageFile.close();
 		}
-		ImageIcon imageIcon = new ImageIcon(image);
-		return new JLabel(imageIcon);
 	}
 
-	private static Color getColor(int i) {
-		if (i == ITER_LIMIT) {
-			return Color.BLACK;
-		}
-		return myColours[i];
+	// display JLabels: graphic images
+	private static void displayFrame(JLabel mandelbrotLabel) {
+		JFrame frame = new JFrame("Result Visualizations");
+		frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+		Container container = frame.getContentPane();
+		container.setLayout(new BorderLayout());
+		container.add(new JScrollPane(mandelbrotLabel), BorderLayout.WEST);
+		frame.pack();
+		frame.setVisible(true);
 	}
 
-	private static Color[] generateColours() {
+	/*
+	 * ARGB colour of every iteration count : a spectrum of 512 colours for the
+	 * points that escape, black for the points in the set
+	 */
+	private static int[] generatePalette() {
 		int count = 0;
-		Color[] myColours = new Color[ITER_LIMIT];
+		int[] palette = new int[ITER_LIMIT + 1];
 		for (float r = 0; r < 1.0; r += 1.0 / 8.0) {
 			for (float g = 0; g < 1.0; g += 1.0 / 8.0) {
 				for (float b = 0; b < 1.0; b += 1.0 / 8.0) {
-					Color c = new Color(r, g, b);
-					myColours[count] = c;
+					palette[count] = new Color(r, g, b).getRGB();
 					count++;
 				}
 			}
 		}
-		return myColours;
+		palette[ITER_LIMIT] = Color.BLACK.getRGB();
+		return palette;
 	}
 }
@@ -0,0 +1,130 @@
+package client;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+import tasks.MandelbrotSetTask.MandelbrotSetTaskResult;
+
+/**
+ * Writes tiles of iteration counts into a binary <a
+ * href="http://netpbm.sourceforge.net/doc/pgm.html">PGM</a> image, whose grey
+ * levels are the counts themselves, stored in one byte per pixel if the
+ * iteration limit is below 256 and in two big-endian bytes otherwise. The file
+ * is memory-mapped in bands of whole rows, so tiles are copied straight into
+ * the page cache and the size of the image is bounded by the disk rather than
+ * by the heap. Tiles may arrive in any order.
+ *
+ * @author Manasa Chandrasekhar
+ * @author Kowshik Prakasam
+ */
+public class MandelbrotSetImageFile {
+
+	// Largest number of bytes mapped at once
+	private static final long MAX_BAND_BYTES = 1L << 30;
+	private static final int MAX_PGM_VALUE = 65535;
+
+	private RandomAccessFile file;
+	private FileChannel channel;
+	private int width;
+	private int height;
+	private int bytesPerValue;
+	private long headerBytes;
+	private int rowsPerBand;
+	private MappedByteBuffer[] bands;
+
+	/**
+	 * Creates the file, or truncates it if it already exists
+	 *
+	 * @param path
+	 *            File to be written
+	 * @param width
+	 *            Number of pixels along the X-axis of the image
+	 * @param height
+	 *            Number of pixels along the Y-axis of the image
+	 * @param iterLimit
+	 *            Largest count in the image, at most 65535
+	 * @throws IOException
+	 */
+	public MandelbrotSetImageFile(File path, int width, int height,
+			int iterLimit) throws IOException {
+		if (iterLimit > MAX_PGM_VALUE) {
+			throw new IllegalArgumentException("Iteration limit " + iterLimit
+					+ " exceeds the largest PGM value " + MAX_PGM_VALUE);
+		}
+		this.width = width;
+		this.height = height;
+		this.bytesPerValue = iterLimit < 256 ? 1 : 2;
+		byte[] header = ("P5\n" + width + " " + height + "\n" + iterLimit + "\n")
+				.getBytes(StandardCharsets.US_ASCII);
+		this.headerBytes = header.length;
+		long rowBytes = (long) width * bytesPerValue;
+		this.rowsPerBand = (int) Math.max(1, Math.min(height, MAX_BAND_BYTES
+				/ rowBytes));
+		this.bands = new MappedByteBuffer[(height + rowsPerBand - 1)
+				/ rowsPerBand];
+
+		this.file = new RandomAccessFile(path, "rw");
+		this.file.setLength(0);
+		this.file.setLength(headerBytes + rowBytes * height);
+		this.file.write(header);
+		this.channel = file.getChannel();
+	}
+
+	/**
+	 * Copies a tile to its location in the image. Pixels of the tile that fall
+	 * outside the image are ignored.
+	 *
+	 * @param tile
+	 *            Tile of iteration counts
+	 * @throws IOException
+	 */
+	public void write(MandelbrotSetTaskResult tile) throws IOException {
+		int columns = Math.min(tile.getWidth(), width - tile.getX());
+		int rows = Math.min(tile.getHeight(), height - tile.getY());
+		for (int j = 0; j < rows; j++) {
+			int row = tile.getY() + j;
+			MappedByteBuffer band = getBand(row / rowsPerBand);
+			int index = ((row % rowsPerBand) * width + tile.getX())
+					* bytesPerValue;
+			for (int i = 0; i < columns; i++) {
+				if (bytesPerValue == 1) {
+					band.put(index, (byte) tile.getValue(i, j));
+				} else {
+					band.putShort(index, (short) tile.getValue(i, j));
+				}
+				index += bytesPerValue;
+			}
+		}
+	}
+
+	// Maps the band of rows on first use
+	private MappedByteBuffer getBand(int bandIndex) throws IOException {
+		if (bands[bandIndex] == null) {
+			long rowBytes = (long) width * bytesPerValue;
+			int firstRow = bandIndex * rowsPerBand;
+			int numOfRows = Math.min(rowsPerBand, height - firstRow);
+			bands[bandIndex] = channel.map(FileChannel.MapMode.READ_WRITE,
+					headerBytes + firstRow * rowBytes, numOfRows * rowBytes);
+		}
+		return bands[bandIndex];
+	}
+
+	/**
+	 * Flushes the image to the disk and closes the file
+	 *
+	 * @throws IOException
+	 */
+	public void close() throws IOException {
+		for (MappedByteBuffer aBand : bands) {
+			if (aBand != null) {
+				aBand.force();
+			}
+		}
+		channel.close();
+		file.close();
+	}
+}
@@ -2,6 +2,7 @@ package client;
 
 import java.io.IOException;
 import java.rmi.RemoteException;
+import java.util.List;
 import java.util.logging.FileHandler;
 import java.util.logging.Handler;
 import java.util.logging.Logger;
@@ -28,11 +29,17 @@ public class MandelbrotSetJob extends Job {
 	private double edgeLength;
 	private int n;
 	private int iterLimit;
+	private int maxTileSize;
+	private boolean borderTracing;
+	private boolean streaming;
+	private boolean composing;
 	private  Logger logger;
 	private Handler handler;
-	private int[][] allValues;
+	private MandelbrotSetTask.MandelbrotSetTaskResult allValues;
 	private long startTime;
+	private long firstTileTime;
 	private static final String LOG_FILE="/cs/student/kowshik/mandelbrotset_job.log";
+	private static final int DEFAULT_NUM_OF_TILES = 16;
 	
 	/**
 	 * 
@@ -54,12 +61,125 @@ public class MandelbrotSetJob extends Job {
 	 */
 	public MandelbrotSetJob(double lowerX, double lowerY, double edgeLength,
 			int n, int iterLimit) {
+		this(lowerX, lowerY, edgeLength, n, iterLimit, MandelbrotSetTask
+				.getTileSize(n, DEFAULT_NUM_OF_TILES), false);
+	}
+
+	/**
+	 * 
+	 * @param lowerX
+	 *            X-coordinate of the lower left corner of a square in the
+	 *            complex plane
+	 * @param lowerY
+	 *            Y-coordinate of the lower left corner of a square in the
+	 *            complex plane
+	 * @param edgeLength
+	 *            Edge length of the square in the complex plane, whose sides
+	 *            are parallel to the axes
+	 * @param n
+	 *            Square region of the complex plane subdivided into n X n
+	 *            squares, each of which is visualized by 1 pixel
+	 * @param iterLimit
+	 *            Defines when the representative point of a region is
+	 *            considered to be in the Mandelbrot set.
+	 * @param maxTileSize
+	 *            Largest side of the tiles computed by a single task, see
+	 *            {@link tasks.MandelbrotSetTask#getTileSize(int, int)
+	 *            MandelbrotSetTask.getTileSize}
+	 * @param borderTracing
+	 *            Whether tiles are computed with the Mariani-Silver algorithm,
+	 *            see {@link tasks.MarianiSilverKernel MarianiSilverKernel}
+	 */
+	public MandelbrotSetJob(double lowerX, double lowerY, double edgeLength,
+			int n, int iterLimit, int maxTileSize, boolean borderTracing) {
+		this(lowerX, lowerY, edgeLength, n, iterLimit, maxTileSize,
+				borderTracing, false);
+	}
+
+	/**
+	 * 
+	 * @param lowerX
+	 *            X-coordinate of the lower left corner of a square in the
+	 *            complex plane
+	 * @param lowerY
+	 *            Y-coordinate of the lower left corner of a square in the
+	 *            complex plane
+	 * @param edgeLength
+	 *            Edge length of the square in the complex plane, whose sides
+	 *            are parallel to the axes
+	 * @param n
+	 *            Square region of the complex plane subdivided into n X n
+	 *            squares, each of which is visualized by 1 pixel
+	 * @param iterLimit
+	 *            Defines when the representative point of a region is
+	 *            considered to be in the Mandelbrot set.
+	 * @param maxTileSize
+	 *            Largest side of the tiles computed by a single task, see
+	 *            {@link tasks.MandelbrotSetTask#getTileSize(int, int)
+	 *            MandelbrotSetTask.getTileSize}
+	 * @param borderTracing
+	 *            Whether tiles are computed with the Mariani-Silver algorithm,
+	 *            see {@link tasks.MarianiSilverKernel MarianiSilverKernel}
+	 * @param streaming
+	 *            Whether tiles are to be fetched with
+	 *            {@link #pollTiles(Space, long, int) pollTiles(Space, long, int)} as
+	 *            soon as they are computed
+	 */
+	public MandelbrotSetJob(double lowerX, double lowerY, double edgeLength,
+			int n, int iterLimit, int maxTileSize, boolean borderTracing,
+			boolean streaming) {
+		this(lowerX, lowerY, edgeLength, n, iterLimit, maxTileSize,
+				borderTracing, streaming, true);
+	}
+
+	/**
+	 * 
+	 * @param lowerX
+	 *            X-coordinate of the lower left corner of a square in the
+	 *            complex plane
+	 * @param lowerY
+	 *            Y-coordinate of the lower left corner of a square in the
+	 *            complex plane
+	 * @param edgeLength
+	 *            Edge length of the square in the complex plane, whose sides
+	 *            are parallel to the axes
+	 * @param n
+	 *            Square region of the complex plane subdivided into n X n
+	 *            squares, each of which is visualized by 1 pixel
+	 * @param iterLimit
+	 *            Defines when the representative point of a region is
+	 *            considered to be in the Mandelbrot set.
+	 * @param maxTileSize
+	 *            Largest side of the tiles computed by a single task, see
+	 *            {@link tasks.MandelbrotSetTask#getTileSize(int, int)
+	 *            MandelbrotSetTask.getTileSize}
+	 * @param borderTracing
+	 *            Whether tiles are computed with the Mariani-Silver algorithm,
+	 *            see {@link tasks.MarianiSilverKernel MarianiSilverKernel}
+	 * @param streaming
+	 *            Whether tiles are to be fetched with
+	 *            {@link #pollTiles(Space, long, int) pollTiles(Space, long, int)} as
+	 *            soon as they are computed
+	 * @param composing
+	 *            If false, the tiles are never composed into the whole image,
+	 *            which is then only available through
+	 *            {@link #pollTiles(Space, long, int) pollTiles(Space, long, int)}, and
+	 *            {@link #getAllResults() getAllResults()} returns an empty
+	 *            tile. Meant for streaming images larger than the heap.
+	 */
+	public MandelbrotSetJob(double lowerX, double lowerY, double edgeLength,
+			int n, int iterLimit, int maxTileSize, boolean borderTracing,
+			boolean streaming, boolean composing) {
 		super();
 		this.lowerX = lowerX;
 		this.lowerY = lowerY;
 		this.edgeLength = edgeLength;
 		this.n = n;
 		this.iterLimit = iterLimit;
+		this.maxTileSize = maxTileSize;
+		this.borderTracing = borderTracing;
+		this.streaming = streaming;
+		this.composing = composing;
 		this.logger = Logger.getLogger("MandelbrotSetJob");
 		this.logger.setUseParentHandlers(false);
 		this.handler=null;
@@ -89,13 +209,43 @@ public class MandelbrotSetJob extends Job {
 	public void generateTasks(Space space) throws RemoteException {
 
 		Task<MandelbrotSetTask.MandelbrotSetTaskResult> aMandelbrotSetTask = new MandelbrotSetTask(
-				lowerX, lowerY, edgeLength, n, iterLimit);
+				lowerX, lowerY, edgeLength, n, iterLimit, maxTileSize,
+				borderTracing, composing);
 		this.startTime=System.currentTimeMillis();
-		space.put(aMandelbrotSetTask);
+		this.jobId = space.put(aMandelbrotSetTask, streaming);
 
 
 	}
 
+	/**
+	 * Fetches the tiles computed since the previous call, if the job was
+	 * created for streaming. Every tile carries its location in the image, so
+	 * it can be displayed right away. Must be called until it returns null
+	 * before {@link #collectResults(Space) collectResults(Space space)}.
+	 * 
+	 * @param space
+	 *            Compute space to which the job was submitted
+	 * @param timeoutMillis
+	 *            Longest time to wait for a tile, in milliseconds
+	 * @param maxTiles
+	 *            Largest number of tiles fetched by this call
+	 * @return Tiles computed since the previous call, possibly none, or null
+	 *         once every tile of the job has been fetched
+	 * @throws RemoteException
+	 */
+	@SuppressWarnings("unchecked")
+	public List<MandelbrotSetTask.MandelbrotSetTaskResult> pollTiles(
+			Space space, long timeoutMillis, int maxTiles)
+			throws RemoteException {
+		List<MandelbrotSetTask.MandelbrotSetTaskResult> tiles = (List<MandelbrotSetTask.MandelbrotSetTaskResult>) space
+				.pollLeafValues(this.jobId, timeoutMillis, maxTiles);
+		if (tiles != null && !tiles.isEmpty() && firstTileTime == 0) {
+			this.firstTileTime = System.currentTimeMillis();
+			logger.info("Time to first tile=" + (firstTileTime - startTime));
+		}
+		return tiles;
+	}
+
 	/**
 	 * Gathers {@link api.Result Result} objects from the compute space and
 	 * caches them in a simple data structure that can be quickly retrieved by
@@ -109,8 +259,8 @@ public class MandelbrotSetJob extends Job {
 	 */
 	public void collectResults(Space space) throws RemoteException {
 		Result<MandelbrotSetTask.MandelbrotSetTaskResult> r = (Result<MandelbrotSetTask.MandelbrotSetTaskResult>) space
-				.takeResult();
-		this.allValues=r.getValue().getValues();
+				.takeResult(this.jobId);
+		this.allValues=r.getValue();
 		logger.info("Elapsed Time="+(System.currentTimeMillis()-startTime));
 		this.handler.close();
 	}
@@ -121,11 +271,11 @@ public class MandelbrotSetJob extends Job {
 	 * represents the colour of a pixel to be displayed on the screen to
 	 * represent the Mandelbrot Set.
 	 * 
-	 * @return An array that contains Mandelbrot Set integer values from all
+	 * @return A tile that contains Mandelbrot Set integer values from all
 	 *         {@link api.Result Result} objects
 	 * @see client.Job Job
 	 */
-	public int[][] getAllResults() {
+	public MandelbrotSetTask.MandelbrotSetTaskResult getAllResults() {
 		return this.allValues;
 	}
 
@@ -0,0 +1,125 @@
+package client;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import tasks.MandelbrotSetTask.MandelbrotSetTaskResult;
+
+/**
+ * Paints tiles of iteration counts into an image, by writing packed ARGB
+ * values straight into the int array behind the image's raster instead of
+ * going through Java2D for every pixel. Rows of large tiles are painted in
+ * parallel.
+ *
+ * @author Manasa Chandrasekhar
+ * @author Kowshik Prakasam
+ */
+public class MandelbrotSetRenderer {
+
+	/*
+	 * Tiles with fewer pixels are painted by the calling thread alone
+	 */
+	private static final int MIN_PARALLEL_PIXELS = 64 * 1024;
+	private static final int NUM_OF_THREADS = Runtime.getRuntime()
+			.availableProcessors();
+	private static final ExecutorService EXECUTOR = Executors
+			.newFixedThreadPool(NUM_OF_THREADS, new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, "MandelbrotSetRenderer");
+					t.setDaemon(true);
+					return t;
+				}
+			});
+
+	private BufferedImage image;
+	private int[] pixels;
+	private int[] palette;
+
+	/**
+	 *
+	 * @param width
+	 *            Number of pixels along the X-axis of the image
+	 * @param height
+	 *            Number of pixels along the Y-axis of the image
+	 * @param palette
+	 *            ARGB colour of every iteration count, from 0 to the
+	 *            iteration limit
+	 */
+	public MandelbrotSetRenderer(int width, int height, int[] palette) {
+		this.image = new BufferedImage(width, height,
+				BufferedImage.TYPE_INT_ARGB);
+		this.pixels = ((DataBufferInt) image.getRaster().getDataBuffer())
+				.getData();
+		this.palette = palette;
+	}
+
+	/**
+	 *
+	 * @return Image into which tiles are painted
+	 */
+	public BufferedImage getImage() {
+		return image;
+	}
+
+	/**
+	 * Paints a tile at its location in the image. Pixels of the tile that
+	 * fall outside the image are ignored.
+	 *
+	 * @param tile
+	 *            Tile of iteration counts
+	 */
+	public void paint(final MandelbrotSetTaskResult tile) {
+		int rows = Math.min(tile.getHeight(), image.getHeight() - tile.getY());
+		if (rows <= 0) {
+			return;
+		}
+		if ((long) rows * tile.getWidth() < MIN_PARALLEL_PIXELS
+				|| NUM_OF_THREADS == 1) {
+			paintRows(tile, 0, rows);
+			return;
+		}
+		int rowsPerBand = (rows + NUM_OF_THREADS - 1) / NUM_OF_THREADS;
+		List<Future<?>> bands = new ArrayList<Future<?>>();
+		for (int fromRow = 0; fromRow < rows; fromRow += rowsPerBand) {
+			final int from = fromRow;
+			final int to = Math.min(rows, fromRow + rowsPerBand);
+			bands.add(EXECUTOR.submit(new Callable<Void>() {
+				@Override
+				public Void call() {
+					paintRows(tile, from, to);
+					return null;
+				}
+			}));
+		}
+		for (Future<?> aBand : bands) {
+			try {
+				aBand.get();
+			} catch (InterruptedException e) {
+				e.printStackTrace();
+			} catch (ExecutionException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	// Paints the rows of the tile from fromRow inclusive to toRow exclusive
+	private void paintRows(MandelbrotSetTaskResult tile, int fromRow, int toRow) {
+		int imageWidth = image.getWidth();
+		int columns = Math.min(tile.getWidth(), imageWidth - tile.getX());
+		for (int j = fromRow; j < toRow; j++) {
+			int index = (tile.getY() + j) * imageWidth + tile.getX();
+			for (int i = 0; i < columns; i++) {
+				pixels[index + i] = palette[tile.getValue(i, j)];
+			}
+		}
+	}
+}
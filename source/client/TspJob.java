@@ -67,7 +67,7 @@ public class TspJob extends Job {
 	 */
 	public void generateTasks(Space space) throws RemoteException {
 		this.startTime = System.currentTimeMillis();
-		space.put(new TspTask(cities));
+		this.jobId = space.put(new TspTask(cities));
 
 	}
 
@@ -85,7 +85,7 @@ public class TspJob extends Job {
 	@Override
 	public void collectResults(Space space) throws RemoteException {
 
-		Result<List<City>> r = (Result<List<City>>) space.takeResult();
+		Result<List<City>> r = (Result<List<City>>) space.takeResult(this.jobId);
 		logger.info("Elapsed Time=" + (System.currentTimeMillis() - startTime));
 		this.minRoute = new int[r.getValue().size()];
 		int index = 0;
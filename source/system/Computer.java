@@ -47,4 +47,26 @@ public interface Computer extends Remote {
 	 * @throws java.rmi.RemoteException
 	 */
 	Result<?> compose(Task<?> t, List<?> list) throws RemoteException;
+
+	/**
+	 * Executes a batch of tasks in a single remote call. Tasks in the DECOMPOSE
+	 * status are decomposed and tasks in the COMPOSE status are composed with
+	 * the values carried by the batch.
+	 * 
+	 * @param batch
+	 *            Tasks to be executed on a remote machine
+	 * @return Returns the {@link api.Result Result} of every task in the
+	 *         batch, in the order in which the tasks appear in the batch
+	 * @throws java.rmi.RemoteException
+	 */
+	List<Result<?>> execute(TaskBatch batch) throws RemoteException;
+
+	/**
+	 * Used by the compute space to check that this computer is still alive.
+	 * Returns immediately.
+	 * 
+	 * @throws java.rmi.RemoteException
+	 *             If the computer cannot be reached
+	 */
+	void heartbeat() throws RemoteException;
 }
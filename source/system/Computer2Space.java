@@ -1,5 +1,9 @@
 package system;
 
+import java.util.List;
+
+import api.Result;
+
 /**
  * Compute server's abstraction of the compute space ({@link api.Space Space})
  */
@@ -12,7 +16,68 @@ public interface Computer2Space extends java.rmi.Remote {
 	 * @param computer
 	 *            Registers a remote computer with the resource allocator that
 	 *            manages the cluster operations
+	 * @param numOfSlots
+	 *            Number of tasks the computer executes in parallel
+	 * @throws java.rmi.RemoteException
+	 */
+	void register(Computer computer, int numOfSlots)
+			throws java.rmi.RemoteException;
+
+	/**
+	 * 
+	 * @return True if computers are expected to pull tasks through
+	 *         {@link #takeTasks(Computer, int, long) takeTasks} rather than
+	 *         having them pushed by the compute space
+	 * @throws java.rmi.RemoteException
+	 */
+	boolean isPullBased() throws java.rmi.RemoteException;
+
+	/**
+	 * Used by a registered {@link system.Computer Computer} with free slots to
+	 * pull tasks from a pull based compute space. Blocks until a task is
+	 * available or the timeout expires.
+	 * 
+	 * @param computer
+	 *            Computer on whose behalf the tasks are taken
+	 * @param maxTasks
+	 *            Maximum number of tasks in the batch
+	 * @param timeoutMillis
+	 *            Maximum time to wait for a task
+	 * @return Batch of tasks leased to the computer, which is empty if the
+	 *         timeout expired
+	 * @throws java.rmi.RemoteException
+	 */
+	TaskBatch takeTasks(Computer computer, int maxTasks, long timeoutMillis)
+			throws java.rmi.RemoteException;
+
+	/**
+	 * Returns the results of a batch taken through
+	 * {@link #takeTasks(Computer, int, long) takeTasks}
+	 * 
+	 * @param computer
+	 *            Computer that executed the batch
+	 * @param batchId
+	 *            ID of the batch
+	 * @param results
+	 *            Result of each task of the batch, in the same order
+	 * @throws java.rmi.RemoteException
+	 */
+	void putResults(Computer computer, long batchId, List<Result<?>> results)
+			throws java.rmi.RemoteException;
+
+	/**
+	 * Reports that a task of a batch taken through
+	 * {@link #takeTasks(Computer, int, long) takeTasks} threw an exception,
+	 * so that the jobs of the batch fail instead of waiting for its results
+	 * 
+	 * @param computer
+	 *            Computer that executed the batch
+	 * @param batchId
+	 *            ID of the batch
+	 * @param e
+	 *            Exception thrown by the task
 	 * @throws java.rmi.RemoteException
 	 */
-	void register(Computer computer) throws java.rmi.RemoteException;
-}
\ No newline at end of file
+	void failBatch(Computer computer, long batchId, RuntimeException e)
+			throws java.rmi.RemoteException;
+}
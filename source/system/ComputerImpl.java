@@ -5,7 +5,13 @@ import java.rmi.Naming;
 import java.rmi.NotBoundException;
 import java.rmi.RemoteException;
 import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import api.Result;
 import api.Task;
@@ -13,6 +19,13 @@ import api.Task;
 /**
  * Defines the remote server which is accessed by the client for execution of objects of type {@link api.Task Task}
  * 
+ * Tasks are executed on a local pool of worker threads, by default one per
+ * available core (overridden with the system property
+ * <code>computer.workers</code>). The number of workers is advertised to the
+ * compute space on registration, so that a single computer per host keeps
+ * every core of the host busy. If the compute space is pull based, each worker
+ * thread takes batches of tasks from the compute space whenever it is free.
+ * 
  * @author Manasa Chandrasekhar
  * @author Kowshik Prakasam
  */
@@ -20,12 +33,50 @@ import api.Task;
 public class ComputerImpl extends UnicastRemoteObject implements Computer {
 
 	private static final long serialVersionUID = -4634299253959618077L;
+	private static final String WORKERS_PROPERTY = "computer.workers";
+	private static final long PULL_TIMEOUT_MILLIS = 1000;
+	private static final long TARGET_BATCH_MILLIS = 50;
+	private static final int MAX_BATCH_SIZE = 64;
+	/*
+	 * Delays between attempts to reach the compute space double from
+	 * MIN_RETRY_MILLIS up to MAX_RETRY_MILLIS. The computer exits after
+	 * MAX_FAILED_ATTEMPTS consecutive failures.
+	 */
+	private static final long MIN_RETRY_MILLIS = 100;
+	private static final long MAX_RETRY_MILLIS = 10000;
+	private static final int MAX_FAILED_ATTEMPTS = 20;
+	private int numOfWorkers;
+	private int numOfRegistrations;
+	private transient ExecutorService workers;
+
 	/**
-	 * Sets up the server for execution
+	 * Sets up the server for execution, with one worker thread per available
+	 * core
 	 * @throws RemoteException
 	 */
 	public ComputerImpl() throws RemoteException {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Sets up the server for execution
+	 * 
+	 * @param numOfWorkers
+	 *            Number of tasks executed in parallel by this computer
+	 * @throws RemoteException
+	 */
+	public ComputerImpl(int numOfWorkers) throws RemoteException {
 		super();
+		this.numOfWorkers = numOfWorkers;
+		this.workers = Executors.newFixedThreadPool(numOfWorkers);
+	}
+
+	/**
+	 * 
+	 * @return Number of tasks executed in parallel by this computer
+	 */
+	public int getNumOfWorkers() {
+		return this.numOfWorkers;
 	}
 
 	@Override
@@ -33,9 +84,32 @@ public class ComputerImpl extends UnicastRemoteObject implements Computer {
 	 * @see api.Task Task
 	 */
 	public Result<?> decompose(Task<?> t) {
+		if (t.isSequential()) {
+			return executeSequentially(t);
+		}
 		return t.decompose();
 	}
 
+	/**
+	 * Executes the whole subtree rooted at a task in-process, by recursively
+	 * decomposing it and composing the values of its subtasks
+	 * 
+	 * @param t
+	 *            Task whose subtree is small enough to be executed locally
+	 * @return Result containing the final value of the task
+	 */
+	private <T> Result<T> executeSequentially(Task<T> t) {
+		Result<T> r = t.decompose();
+		if (r.getSubTasks() == null) {
+			return r;
+		}
+		List<T> values = new ArrayList<T>(r.getSubTasks().size());
+		for (Task<T> subTask : r.getSubTasks()) {
+			values.add(executeSequentially(subTask).getValue());
+		}
+		return t.compose(values);
+	}
+
 	/**
 	 * 
 	 * Register Computer objects to the compute space
@@ -47,10 +121,15 @@ public class ComputerImpl extends UnicastRemoteObject implements Computer {
 		}
 		try {
 
-			ComputerImpl comp = new ComputerImpl();
+			ComputerImpl comp = new ComputerImpl(Integer.getInteger(
+					WORKERS_PROPERTY, Runtime.getRuntime()
+							.availableProcessors()));
 			Computer2Space space = (Computer2Space) Naming.lookup("//"
 					+ computeSpaceServer + "/" + Computer2Space.SERVICE_NAME);
-			space.register(comp);
+			space.register(comp, comp.getNumOfWorkers());
+			if (space.isPullBased()) {
+				comp.startPulling(space);
+			}
 			System.out.println("Computer ready");
 		} catch (RemoteException e) {
 			System.err.println("ComputerImpl exception : ");
@@ -74,4 +153,163 @@ public class ComputerImpl extends UnicastRemoteObject implements Computer {
 		return t.compose(list);
 	}
 
+	@Override
+	/**
+	 * Executes the tasks of the batch in parallel on the worker pool
+	 * @see system.Computer Computer
+	 */
+	public List<Result<?>> execute(final TaskBatch batch)
+			throws RemoteException {
+		List<Future<Result<?>>> futures = new ArrayList<Future<Result<?>>>(
+				batch.size());
+		for (int index = 0; index < batch.size(); index++) {
+			final int taskIndex = index;
+			futures.add(workers.submit(new Callable<Result<?>>() {
+				public Result<?> call() {
+					return executeTask(batch.getTask(taskIndex),
+							batch.getArguments(taskIndex));
+				}
+			}));
+		}
+		List<Result<?>> results = new ArrayList<Result<?>>(batch.size());
+		try {
+			for (Future<Result<?>> aFuture : futures) {
+				results.add(aFuture.get());
+			}
+		} catch (InterruptedException e) {
+			throw new RemoteException("Interrupted while executing batch", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new RemoteException("Task execution failed", e.getCause());
+		}
+		return results;
+	}
+
+	/**
+	 * Starts one pulling loop per worker thread, for a compute space in which
+	 * computers pull their tasks
+	 * 
+	 * @param space
+	 *            Compute space this computer is registered with
+	 */
+	public void startPulling(final Computer2Space space) {
+		for (int worker = 0; worker < numOfWorkers; worker++) {
+			workers.submit(new Runnable() {
+				public void run() {
+					pull(space);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Repeatedly takes a batch of tasks from the compute space, executes it on
+	 * the calling thread and returns the results. The batch size adapts to
+	 * the execution time in the same way as in {@link system.ComputerProxy
+	 * ComputerProxy}, so that fine grained tasks are fetched in bulk. Calls
+	 * that fail with a RemoteException are retried with an exponential
+	 * backoff. If the compute space has declared this computer dead, the
+	 * computer registers again and carries on. A task that throws a
+	 * RuntimeException is reported to the compute space, which fails its job.
+	 * 
+	 * @param space
+	 *            Compute space this computer is registered with
+	 */
+	private void pull(Computer2Space space) {
+		int batchSize = 1;
+		int failedAttempts = 0;
+		int registration = getNumOfRegistrations();
+		boolean registered = true;
+		while (true) {
+			try {
+				if (!registered) {
+					registration = registerAgain(space, registration);
+					registered = true;
+				}
+				TaskBatch batch = space.takeTasks(this, batchSize,
+						PULL_TIMEOUT_MILLIS);
+				failedAttempts = 0;
+				if (batch.size() == 0) {
+					continue;
+				}
+				long batchStartTime = System.currentTimeMillis();
+				List<Result<?>> results = new ArrayList<Result<?>>(batch
+						.size());
+				try {
+					for (int index = 0; index < batch.size(); index++) {
+						results.add(executeTask(batch.getTask(index), batch
+								.getArguments(index)));
+					}
+				} catch (RuntimeException e) {
+					space.failBatch(this, batch.getId(), e);
+					continue;
+				}
+				if (System.currentTimeMillis() - batchStartTime < TARGET_BATCH_MILLIS) {
+					batchSize = Math.min(batchSize * 2, MAX_BATCH_SIZE);
+				} else {
+					batchSize = Math.max(batchSize / 2, 1);
+				}
+				space.putResults(this, batch.getId(), results);
+			} catch (RemoteException e) {
+				failedAttempts++;
+				if (failedAttempts >= MAX_FAILED_ATTEMPTS) {
+					System.err.println("ComputerImpl : compute space unreachable after "
+							+ failedAttempts + " attempts, exiting");
+					e.printStackTrace();
+					System.exit(1);
+				}
+				long delay = Math.min(MAX_RETRY_MILLIS, MIN_RETRY_MILLIS << Math
+						.min(failedAttempts - 1, 16));
+				System.err.println("ComputerImpl : compute space unreachable ("
+						+ e.getMessage() + "), retrying in " + delay + " ms");
+				try {
+					Thread.sleep(delay);
+				} catch (InterruptedException ie) {
+					return;
+				}
+			} catch (IllegalStateException e) {
+				// Declared dead after missing heartbeats, its tasks are gone
+				System.err.println("ComputerImpl : " + e.getMessage()
+						+ ", registering again");
+				registered = false;
+			}
+		}
+	}
+
+	private synchronized int getNumOfRegistrations() {
+		return numOfRegistrations;
+	}
+
+	/*
+	 * Registers this computer again, unless another worker thread has already
+	 * done so since the given registration. Returns the current registration.
+	 */
+	private synchronized int registerAgain(Computer2Space space,
+			int staleRegistration) throws RemoteException {
+		if (numOfRegistrations == staleRegistration) {
+			space.register(this, numOfWorkers);
+			numOfRegistrations++;
+		}
+		return numOfRegistrations;
+	}
+
+	// Runs a single task of a batch in the phase it is in
+	private Result<?> executeTask(Task<?> t, List<?> arguments) {
+		switch (t.getStatus()) {
+		case COMPOSE:
+			return t.compose(arguments);
+		default:
+			return decompose(t);
+		}
+	}
+
+	@Override
+	/**
+	 * @see system.Computer Computer
+	 */
+	public void heartbeat() {
+	}
+
 }
@@ -2,16 +2,28 @@ package system;
 
 import java.io.IOException;
 import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Random;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.FileHandler;
 import java.util.logging.Handler;
 import java.util.logging.Logger;
 import java.util.logging.SimpleFormatter;
 
-import system.Successor.Closure;
 import api.Result;
 import api.Task;
+import api.TaskId;
 
 /**
  * For every {@link system.Computer Computer} instance that registers with the
@@ -21,22 +33,54 @@ import api.Task;
  * is responsible for execution of {@link api.Task Task} objects in the
  * registered remote computers.
  * 
- * Each proxy maintains a queue of tasks that need to be executed one after the
- * other on a remote machine. These tasks can either represent the Divide phase
+ * Each proxy maintains a queue of tasks that need to be executed on a remote
+ * machine. A proxy runs a fixed number of slot threads, each of which blocks on
+ * the queue and keeps one call outstanding to the remote computer, so that up
+ * to that many tasks are in flight per computer and network round trips
+ * overlap with computation on the remote machine. These tasks can either represent the Divide phase
  * or the Conquer phase in the <a
  * href="http://en.wikipedia.org/wiki/Divide_and_conquer_algorithm">Divide and
  * conquer algorithm</a>.
  * 
+ * The queue is a deque : the proxy consumes tasks from its head, while idle
+ * proxies in a work stealing compute space steal tasks from its tail.
+ * 
+ * In a pull based compute space, the proxy runs no slot threads. The remote
+ * computer takes batches of tasks from the compute space itself, and the proxy
+ * only tracks the batches leased to it until their results are returned.
+ * 
+ * Each proxy also sends periodic heartbeats to its remote computer. After
+ * {@value #MAX_MISSED_HEARTBEATS} consecutive heartbeats fail or time out, the
+ * computer is considered dead : the proxy is removed from the compute space and
+ * every task it held, whether queued or in flight, is redistributed among the
+ * remaining proxies.
+ * 
  * @author Manasa Chandrasekhar
  * @author Kowshik Prakasam
  * 
  */
 public class ComputerProxy implements Runnable {
 	private static final String LOG_FILE_PREFIX = "/cs/student/kowshik/computerproxy_";
+	private static final long STEAL_INTERVAL_MILLIS = 5;
+	private static final long TARGET_BATCH_MILLIS = 50;
+	private static final int MAX_BATCH_SIZE = 64;
+	private static final long HEARTBEAT_INTERVAL_MILLIS = 1000;
+	private static final long HEARTBEAT_TIMEOUT_MILLIS = 2000;
+	private static final int MAX_MISSED_HEARTBEATS = 3;
+	private static final double THROUGHPUT_SMOOTHING = 0.2;
 	private Computer compObj;
 	private SpaceImpl space;
-	private Thread t;
-	private LinkedBlockingQueue<Task<?>> tasks;
+	private Thread[] slots;
+	private LinkedBlockingDeque<Task<?>> tasks;
+	private ConcurrentHashMap<Task<?>, Long> inFlight;
+	private volatile boolean alive;
+	private ExecutorService heartbeatExecutor;
+	private AtomicLong stealCount;
+	private volatile int batchSize;
+	private volatile double slotThroughput;
+	private ConcurrentHashMap<Long, Lease> leases;
+	private AtomicLong nextLeaseId;
+	private String proxyName;
 	private String id;
 	private Logger logger;
 	private Handler handler;
@@ -49,11 +93,24 @@ public class ComputerProxy implements Runnable {
 	 * @param space
 	 *            Implementation of ({@link api.Space Space}) which is
 	 *            responsible for maintaining each instance of this class
+	 * @param numOfSlots
+	 *            Maximum number of batches of tasks that are in flight at the
+	 *            same time on the remote computer
+	 * @param pullBased
+	 *            If true, the remote computer pulls tasks from the compute
+	 *            space itself, and the proxy runs no slot threads
 	 */
-	public ComputerProxy(Computer compObj, SpaceImpl space) {
+	public ComputerProxy(Computer compObj, SpaceImpl space, int numOfSlots,
+			boolean pullBased) {
 		this.compObj = compObj;
 		this.space = space;
-		this.tasks = new LinkedBlockingQueue<Task<?>>();
+		this.tasks = new LinkedBlockingDeque<Task<?>>();
+		this.inFlight = new ConcurrentHashMap<Task<?>, Long>();
+		this.alive = true;
+		this.stealCount = new AtomicLong();
+		this.batchSize = 1;
+		this.leases = new ConcurrentHashMap<Long, Lease>();
+		this.nextLeaseId = new AtomicLong();
 		this.id = new Random().nextInt() + "";
 		this.logger = Logger.getLogger("ComputerProxy" + id);
 		this.logger.setUseParentHandlers(false);
@@ -68,18 +125,40 @@ public class ComputerProxy implements Runnable {
 		}
 		this.handler.setFormatter(new SimpleFormatter());
 		logger.addHandler(handler);
-		t = new Thread(this, "ComputerProxy " + getRandomProxyName());
-
-		t.start();
-
+		this.proxyName = getRandomProxyName();
+		this.slots = new Thread[numOfSlots];
+		for (int slot = 0; slot < numOfSlots; slot++) {
+			slots[slot] = new Thread(this, "ComputerProxy " + proxyName + "-"
+					+ slot);
+			if (!pullBased) {
+				slots[slot].start();
+			}
+		}
+		this.heartbeatExecutor = Executors.newSingleThreadExecutor();
+		Thread heartbeat = new Thread(new Heartbeat(), "Heartbeat "
+				+ proxyName);
+		heartbeat.setDaemon(true);
+		heartbeat.start();
 	}
 
 	/**
-	 * Loops infinitely and attempts to fetch a {@link api.Task Task} object
-	 * from the proxy's queue and executes it. If the thread is interrupted, the
-	 * task is returned to the compute space's queue. If the task execution is
-	 * successful, then the {@link api.Result Result} produced is also added to
-	 * compute space's queue of {@link api.Result Result} objects.
+	 * Executed by each slot thread of this proxy. Loops infinitely and blocks
+	 * until a {@link api.Task Task} object can be fetched from the proxy's
+	 * queue. Further queued tasks are coalesced with it into a
+	 * {@link system.TaskBatch TaskBatch}, which is executed on the remote
+	 * computer in a single call. Tasks stay registered as in flight until
+	 * their results have been handed over. If the call fails, every task in
+	 * the batch is returned to the compute space's queue. If the batch execution is
+	 * successful, then the {@link api.Result Result} produced by each task is
+	 * handed over to the compute space. If a task throws a RuntimeException,
+	 * either on the remote computer or while its result is handed over, the
+	 * jobs of the tasks left in the batch fail, since executing them again
+	 * would throw again.
+	 * 
+	 * The batch size adapts to the observed round trip time : it doubles while
+	 * batches complete within {@value #TARGET_BATCH_MILLIS} milliseconds and
+	 * halves when they take longer, so that fine grained tasks share a remote
+	 * call while coarse grained tasks are still spread across slots.
 	 * 
 	 * These tasks can either represent the Divide phase or the Conquer phase in
 	 * the <a
@@ -90,78 +169,386 @@ public class ComputerProxy implements Runnable {
 	 * phase is over.
 	 */
 	public void run() {
-		while (true) {
-			if (!tasks.isEmpty()) {
-				Task<?> aTask = null;
-				try {
-
-					aTask = tasks.take();
-					Result<?> r = null;
-					switch (aTask.getStatus()) {
-					case DECOMPOSE:
-						r = compObj.decompose(aTask);
-						if (r.getSubTasks() != null) {
-							Successor s = new Successor(aTask, space,
-									aTask.getDecompositionSize());
-							space.addSuccessor(s);
-
-							for (Task<?> task : r.getSubTasks()) {
-								space.put(task);
-							}
-						} else if (r.getValue() != null) {
-							if (aTask.getId().equals(aTask.getParentId())) {
-								space.putResult(r);
-								logger.info("Elapsed Time="
-										+ (r.getEndTime() - r.getStartTime()));
-
-							} else {
-
-								Closure parentClosure = space.getClosure(aTask
-										.getParentId());
-								parentClosure.put(r.getValue());
-								logger.info("Elapsed Time="
-										+ (r.getEndTime() - r.getStartTime()));
-
-							}
-						}
-						aTask.setStatus(Task.Status.COMPOSE);
-						break;
-					case COMPOSE:
-						Closure taskClosure = space.getClosure(aTask.getId());
-						r = compObj.compose(aTask, taskClosure.getValues());
-
-						if (r.getValue() != null) {
-							if (aTask.getId().equals(aTask.getParentId())) {
-								space.putResult(r);
-							} else {
-								Closure parentClosure = space.getClosure(aTask
-										.getParentId());
-								parentClosure.put(r.getValue());
-							}
-						}
-						space.removeSuccessor(aTask.getId());
-						logger.info("Elapsed Time="
-								+ (r.getEndTime() - r.getStartTime()));
-						break;
-					}
-				} catch (InterruptedException e) {
+		while (alive) {
+			List<Task<?>> tasksInBatch = null;
+			try {
+				tasksInBatch = nextTasks();
+			} catch (InterruptedException e) {
+				if (alive) {
 					e.printStackTrace();
+				}
+			}
+			if (tasksInBatch != null) {
+				TaskBatch batch = createBatch(tasksInBatch);
+				if (batch.size() == 0) {
+					continue;
+				}
+				try {
+					long batchStartTime = System.currentTimeMillis();
+					List<Result<?>> results = compObj.execute(batch);
+					completeBatch(batch, results, batchStartTime);
 				} catch (RemoteException e) {
 					System.err
 							.println("ComputerProxy : RemoteException occured in thread : "
-									+ this.t.getName());
-					System.err.println("Reassigning task to task queue");
-					try {
-						space.put(aTask);
-					} catch (RemoteException ex) {
-						ex.printStackTrace();
+									+ Thread.currentThread().getName());
+					System.err.println("Reassigning tasks to task queue");
+					for (Task<?> aTask : tasksInBatch) {
+						if (inFlight.remove(aTask) != null) {
+							space.dispatch(aTask);
+						}
 					}
+				} catch (RuntimeException e) {
+					failBatch(batch, e);
 				}
 
 			}
 		}
 	}
 
+	/**
+	 * Fails the jobs of the tasks of a batch whose results have not been
+	 * handed over yet, so that their clients are not left waiting for tasks
+	 * that will never complete
+	 * 
+	 * @param batch
+	 *            Batch whose execution threw an exception
+	 * @param e
+	 *            Exception thrown by a task of the batch
+	 */
+	private void failBatch(TaskBatch batch, RuntimeException e) {
+		System.err.println("ComputerProxy : " + e
+				+ " thrown by a task in thread : "
+				+ Thread.currentThread().getName());
+		e.printStackTrace();
+		for (int index = 0; index < batch.size(); index++) {
+			Task<?> aTask = batch.getTask(index);
+			if (inFlight.remove(aTask) != null) {
+				JobContext job = space.getJob(aTask.getJobId());
+				if (job != null) {
+					job.fail(e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Registers tasks as in flight and packs them into a batch, along with
+	 * the values to be composed by tasks in the Conquer phase. Tasks of jobs
+	 * that have already finished are left out.
+	 * 
+	 * @param tasksInBatch
+	 *            Tasks to be executed on the remote computer
+	 * @return Batch to be shipped to the remote computer
+	 */
+	private TaskBatch createBatch(List<Task<?>> tasksInBatch) {
+		long takenTime = System.currentTimeMillis();
+		for (Task<?> aTask : tasksInBatch) {
+			inFlight.put(aTask, takenTime);
+		}
+		TaskBatch batch = new TaskBatch();
+		for (Task<?> aTask : tasksInBatch) {
+			JobContext job = space.getJob(aTask.getJobId());
+			if (job == null) {
+				inFlight.remove(aTask);
+				continue;
+			}
+			if (aTask.getStatus() == Task.Status.COMPOSE) {
+				batch.add(aTask, job.getClosure(aTask.getId()).getValues());
+			} else {
+				batch.add(aTask);
+			}
+		}
+		return batch;
+	}
+
+	/**
+	 * Hands over the results of an executed batch to the jobs its tasks
+	 * belong to
+	 * 
+	 * @param batch
+	 *            Batch executed by the remote computer
+	 * @param results
+	 *            Result of each task of the batch, in the same order
+	 * @param batchStartTime
+	 *            Time at which the batch was handed over to the remote
+	 *            computer
+	 */
+	private void completeBatch(TaskBatch batch, List<Result<?>> results,
+			long batchStartTime) {
+		long batchEndTime = System.currentTimeMillis();
+		adaptBatchSize(batchEndTime - batchStartTime);
+		recordThroughput(batch.size(), batchEndTime - batchStartTime);
+		for (int index = 0; index < batch.size(); index++) {
+			Task<?> aTask = batch.getTask(index);
+			// Tasks redistributed after a failure belong elsewhere
+			Long startTime = inFlight.remove(aTask);
+			if (startTime != null) {
+				processResult(aTask, results.get(index), batchEndTime
+						- startTime);
+			}
+		}
+	}
+
+	/**
+	 * Used by a remote computer that pulls tasks from the compute space. The
+	 * tasks are registered as in flight on this proxy until their results are
+	 * returned through {@link #completeLease(long, List) completeLease}, so
+	 * that they are redistributed if the computer dies.
+	 * 
+	 * @param tasksInBatch
+	 *            Tasks taken from the compute space on behalf of the computer
+	 * @return Batch to be executed by the computer, possibly empty
+	 */
+	public TaskBatch leaseTasks(List<Task<?>> tasksInBatch) {
+		TaskBatch batch = createBatch(tasksInBatch);
+		if (batch.size() > 0) {
+			batch.setId(nextLeaseId.incrementAndGet());
+			leases.put(batch.getId(), new Lease(batch));
+		}
+		if (!alive) {
+			redistributeTasks();
+		}
+		return batch;
+	}
+
+	/**
+	 * Hands over the results of a batch leased by
+	 * {@link #leaseTasks(List) leaseTasks}. Results of unknown leases, such as
+	 * those of a computer that was declared dead in the meantime, are
+	 * dropped.
+	 * 
+	 * @param leaseId
+	 *            ID of the leased batch
+	 * @param results
+	 *            Result of each task of the batch, in the same order
+	 */
+	public void completeLease(long leaseId, List<Result<?>> results) {
+		Lease aLease = leases.remove(leaseId);
+		if (aLease != null) {
+			try {
+				completeBatch(aLease.batch, results, aLease.startTime);
+			} catch (RuntimeException e) {
+				failBatch(aLease.batch, e);
+			}
+		}
+	}
+
+	/**
+	 * Fails the jobs of a batch leased by {@link #leaseTasks(List)
+	 * leaseTasks}, one of whose tasks threw an exception on the remote
+	 * computer
+	 * 
+	 * @param leaseId
+	 *            ID of the leased batch
+	 * @param e
+	 *            Exception thrown by the task
+	 */
+	public void failLease(long leaseId, RuntimeException e) {
+		Lease aLease = leases.remove(leaseId);
+		if (aLease != null) {
+			failBatch(aLease.batch, e);
+		}
+	}
+
+	/**
+	 * 
+	 * @return Next task from the head of this proxy's queue, or null if the
+	 *         queue is empty
+	 */
+	public Task<?> pollTask() {
+		return this.tasks.pollFirst();
+	}
+
+	/**
+	 * Hands over the result of a task executed on the remote computer to the
+	 * job it belongs to. Results of jobs that have already finished, and
+	 * results of speculative copies that lost the race against another copy
+	 * of the same task, are dropped.
+	 * 
+	 * @param aTask
+	 *            Task that was executed
+	 * @param r
+	 *            Result produced by the task
+	 * @param runtime
+	 *            Time elapsed since the task was taken from the queue
+	 */
+	private void processResult(Task<?> aTask, Result<?> r, long runtime) {
+		JobContext job = space.getJob(aTask.getJobId());
+		if (job == null) {
+			return;
+		}
+		if (aTask.getStatus() == Task.Status.DECOMPOSE) {
+			if (!job.claimCompletion(aTask.getId())) {
+				return;
+			}
+			job.recordRuntime(TaskId.getLevel(aTask.getId()), runtime);
+		}
+		job.taskExecuted();
+		switch (aTask.getStatus()) {
+		case DECOMPOSE:
+			if (r.getSubTasks() != null) {
+				job.taskDecomposed(aTask);
+				aTask.setStatus(Task.Status.COMPOSE);
+				Successor s = new Successor(aTask, space, aTask
+						.getDecompositionSize());
+				job.addSuccessor(s);
+
+				for (Task<?> task : r.getSubTasks()) {
+					task.setJobId(job.getId());
+					space.dispatch(task);
+				}
+			} else if (r.getValue() != null) {
+				job.putLeafValue(aTask, r);
+				space.cacheValue(aTask, r.getValue());
+				logger.info("Elapsed Time="
+						+ (r.getEndTime() - r.getStartTime()));
+			}
+			break;
+		case COMPOSE:
+			if (r.getValue() != null) {
+				job.putValue(aTask, r);
+				space.cacheValue(aTask, r.getValue());
+			}
+			job.removeSuccessor(aTask.getId());
+			logger.info("Elapsed Time=" + (r.getEndTime() - r.getStartTime()));
+			break;
+		}
+	}
+
+	/**
+	 * Fetches the tasks to be executed in the next batch. Blocks until at
+	 * least one task is available, and then takes as many further tasks from
+	 * the head of the queue as the current batch size allows, leaving a fair
+	 * share of the queue for the other slots of this proxy.
+	 * 
+	 * @return Tasks to be executed in the next batch, or null if none is
+	 *         available
+	 * @throws InterruptedException
+	 */
+	private List<Task<?>> nextTasks() throws InterruptedException {
+		Task<?> aTask = nextTask();
+		if (aTask == null) {
+			return null;
+		}
+		List<Task<?>> tasksInBatch = new ArrayList<Task<?>>();
+		tasksInBatch.add(aTask);
+		int fairShare = tasks.size() / slots.length;
+		int maxTasks = Math.min(batchSize, 1 + fairShare);
+		tasks.drainTo(tasksInBatch, maxTasks - 1);
+		return tasksInBatch;
+	}
+
+	/**
+	 * Grows the batch size while remote calls are cheap, and shrinks it when
+	 * they take long enough to delay other slots
+	 * 
+	 * @param roundTripMillis
+	 *            Time taken by the last batch, including the network round
+	 *            trip
+	 */
+	private void adaptBatchSize(long roundTripMillis) {
+		if (roundTripMillis < TARGET_BATCH_MILLIS) {
+			batchSize = Math.min(batchSize * 2, MAX_BATCH_SIZE);
+		} else {
+			batchSize = Math.max(batchSize / 2, 1);
+		}
+	}
+
+	/**
+	 * Folds the completion rate observed for one batch into the exponentially
+	 * smoothed throughput of a slot
+	 * 
+	 * @param numOfTasks
+	 *            Number of tasks in the batch
+	 * @param roundTripMillis
+	 *            Time taken by the remote computer to execute the batch
+	 */
+	private synchronized void recordThroughput(int numOfTasks,
+			long roundTripMillis) {
+		double rate = numOfTasks * 1000.0 / Math.max(roundTripMillis, 1);
+		if (slotThroughput == 0) {
+			slotThroughput = rate;
+		} else {
+			slotThroughput = THROUGHPUT_SMOOTHING * rate
+					+ (1 - THROUGHPUT_SMOOTHING) * slotThroughput;
+		}
+	}
+
+	/**
+	 * 
+	 * @return Number of tasks completed per second by the remote computer, as
+	 *         observed over recent batches, or 0 if no batch has completed yet
+	 */
+	public double getThroughput() {
+		return slotThroughput * slots.length;
+	}
+
+	/**
+	 * 
+	 * @return Number of batches kept in flight on the remote computer
+	 */
+	public int getNumOfSlots() {
+		return slots.length;
+	}
+
+	/**
+	 * 
+	 * @return Number of tasks held by this proxy, whether queued or in flight
+	 */
+	public int getLoad() {
+		return tasks.size() + inFlight.size();
+	}
+
+	/**
+	 * Fetches the next task to be executed from the head of this proxy's
+	 * queue, blocking until one is available. In work stealing mode, the wait
+	 * is bounded and a task is stolen from the tail of a busy proxy if the
+	 * queue stays empty.
+	 * 
+	 * @return Next task to be executed, or null if none is available
+	 * @throws InterruptedException
+	 */
+	private Task<?> nextTask() throws InterruptedException {
+		if (!space.isWorkStealing()) {
+			return tasks.take();
+		}
+		Task<?> aTask = tasks.pollFirst(STEAL_INTERVAL_MILLIS,
+				TimeUnit.MILLISECONDS);
+		if (aTask == null) {
+			aTask = space.stealTask(this);
+			if (aTask != null) {
+				stealCount.incrementAndGet();
+			}
+		}
+		return aTask;
+	}
+
+	/**
+	 * Removes a task from the tail of this proxy's queue, on behalf of an idle
+	 * proxy
+	 * 
+	 * @return A task stolen from this proxy, or null if the queue is empty
+	 */
+	public Task<?> stealTask() {
+		return this.tasks.pollLast();
+	}
+
+	/**
+	 * 
+	 * @return Number of tasks waiting in this proxy's queue
+	 */
+	public int getQueueLength() {
+		return this.tasks.size();
+	}
+
+	/**
+	 * 
+	 * @return Number of tasks this proxy has stolen from other proxies
+	 */
+	public long getStealCount() {
+		return this.stealCount.get();
+	}
+
 	/**
 	 * 
 	 * @param aTask
@@ -173,7 +560,162 @@ public class ComputerProxy implements Runnable {
 		} catch (InterruptedException e) {
 			e.printStackTrace();
 		}
+		if (!alive) {
+			redistributeTasks();
+		}
+	}
+
+	/**
+	 * Adds a speculative copy of a straggling task to the head of this proxy's
+	 * queue, so that it is executed next
+	 * 
+	 * @param aTask
+	 *            Copy of a task running on another proxy
+	 */
+	public void addSpeculativeTask(Task<?> aTask) {
+		this.tasks.addFirst(aTask);
+		if (!alive) {
+			redistributeTasks();
+		}
+	}
+
+	/**
+	 * 
+	 * @return Tasks currently executed by this proxy, mapped to the time at
+	 *         which they were taken from the queue
+	 */
+	public Map<Task<?>, Long> getInFlightTasks() {
+		return Collections.unmodifiableMap(this.inFlight);
+	}
 
+	/**
+	 * 
+	 * @param aTask
+	 *            A task
+	 * @return True if the task is currently executed by this proxy
+	 */
+	public boolean isInFlight(Task<?> aTask) {
+		return this.inFlight.containsKey(aTask);
+	}
+
+	/**
+	 * 
+	 * @return True if this proxy has no queued tasks and at least one slot
+	 *         without a task in flight
+	 */
+	public boolean isIdle() {
+		return alive && tasks.isEmpty() && inFlight.size() < slots.length;
+	}
+
+	/**
+	 * 
+	 * @return False once the remote computer has been declared dead
+	 */
+	public boolean isAlive() {
+		return this.alive;
+	}
+
+	/**
+	 * Declares the remote computer dead. The proxy is removed from the compute
+	 * space, its slot threads are stopped, and every task it held is
+	 * redistributed among the remaining proxies.
+	 */
+	public void fail() {
+		synchronized (this) {
+			if (!alive) {
+				return;
+			}
+			alive = false;
+		}
+		System.err.println("ComputerProxy : computer behind proxy "
+				+ proxyName + " is not responding, removing it");
+		space.removeProxy(this);
+		for (Thread slot : slots) {
+			slot.interrupt();
+		}
+		heartbeatExecutor.shutdownNow();
+		redistributeTasks();
+		// Slots still finishing a batch log nowhere once the handler is gone
+		if (handler != null) {
+			logger.removeHandler(handler);
+			handler.close();
+		}
+	}
+
+	/**
+	 * Hands every queued or in flight task of this proxy back to the compute
+	 * space
+	 */
+	private void redistributeTasks() {
+		List<Task<?>> orphans = new ArrayList<Task<?>>();
+		leases.clear();
+		tasks.drainTo(orphans);
+		for (Task<?> aTask : inFlight.keySet()) {
+			if (inFlight.remove(aTask) != null) {
+				orphans.add(aTask);
+			}
+		}
+		for (Task<?> aTask : orphans) {
+			space.dispatch(aTask);
+		}
+	}
+
+	/**
+	 * A batch leased to a computer that pulls tasks from the compute space
+	 */
+	private static class Lease {
+		private TaskBatch batch;
+		private long startTime;
+
+		private Lease(TaskBatch batch) {
+			this.batch = batch;
+			this.startTime = System.currentTimeMillis();
+		}
+	}
+
+	/**
+	 * Periodically checks that the remote computer is still responding
+	 */
+	private class Heartbeat implements Runnable {
+
+		@Override
+		public void run() {
+			int missedHeartbeats = 0;
+			while (alive) {
+				try {
+					Thread.sleep(HEARTBEAT_INTERVAL_MILLIS);
+				} catch (InterruptedException e) {
+					return;
+				}
+				if (sendHeartbeat()) {
+					missedHeartbeats = 0;
+				} else if (++missedHeartbeats >= MAX_MISSED_HEARTBEATS) {
+					fail();
+				}
+			}
+		}
+
+		// Pings the remote computer, bounding the wait in case it hangs
+		private boolean sendHeartbeat() {
+			try {
+				heartbeatExecutor.submit(new Callable<Void>() {
+					public Void call() throws RemoteException {
+						compObj.heartbeat();
+						return null;
+					}
+				}).get(HEARTBEAT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+				return true;
+			} catch (ExecutionException e) {
+				return false;
+			} catch (TimeoutException e) {
+				return false;
+			} catch (InterruptedException e) {
+				return false;
+			} catch (RuntimeException e) {
+				// Executor already shut down
+				return false;
+			}
+		}
 	}
 
 	/**
@@ -0,0 +1,215 @@
+package system;
+
+/**
+ * A concurrent hash map whose keys are primitive <code>long</code> values, so
+ * that lookups neither box the key nor allocate an entry per mapping. The map
+ * is split into a fixed number of stripes, each of which is an open addressing
+ * table with linear probing guarded by its own lock. Threads working on keys
+ * in different stripes never contend with each other.
+ * 
+ * Null values are not supported.
+ * 
+ * @author Manasa Chandrasekhar
+ * @author Kowshik Prakasam
+ * 
+ * @param <V>
+ *            Type of the values stored in the map
+ */
+public class ConcurrentLongHashMap<V> {
+
+	private static final int DEFAULT_NUM_OF_STRIPES = 16;
+	private static final int INITIAL_STRIPE_CAPACITY = 16;
+
+	private final Stripe<V>[] stripes;
+	private final int stripeShift;
+
+	/**
+	 * Creates a map with the default number of stripes
+	 */
+	public ConcurrentLongHashMap() {
+		this(DEFAULT_NUM_OF_STRIPES);
+	}
+
+	/**
+	 * 
+	 * @param concurrencyLevel
+	 *            Expected number of threads updating the map at the same
+	 *            time. It is rounded up to a power of two to obtain the number
+	 *            of stripes.
+	 */
+	public ConcurrentLongHashMap(int concurrencyLevel) {
+		int numOfStripes = 1;
+		while (numOfStripes < concurrencyLevel) {
+			numOfStripes <<= 1;
+		}
+		@SuppressWarnings("unchecked")
+		Stripe<V>[] newStripes = (Stripe<V>[]) new Stripe<?>[numOfStripes];
+		this.stripes = newStripes;
+		for (int i = 0; i < numOfStripes; i++) {
+			stripes[i] = new Stripe<V>();
+		}
+		this.stripeShift = Integer.SIZE
+				- Integer.numberOfTrailingZeros(numOfStripes);
+	}
+
+	/**
+	 * 
+	 * @param key
+	 *            Key whose value is required
+	 * @return Value mapped to the key, or null if there is no mapping
+	 */
+	public V get(long key) {
+		int hash = hash(key);
+		return stripeFor(hash).get(key, hash);
+	}
+
+	/**
+	 * 
+	 * @param key
+	 *            Key to be mapped
+	 * @param value
+	 *            Value to be mapped to the key
+	 * @return Value previously mapped to the key, or null if there was none
+	 */
+	public V put(long key, V value) {
+		if (value == null) {
+			throw new NullPointerException();
+		}
+		int hash = hash(key);
+		return stripeFor(hash).put(key, hash, value);
+	}
+
+	/**
+	 * 
+	 * @param key
+	 *            Key whose mapping is to be removed
+	 * @return Value that was mapped to the key, or null if there was none
+	 */
+	public V remove(long key) {
+		int hash = hash(key);
+		return stripeFor(hash).remove(key, hash);
+	}
+
+	/**
+	 * 
+	 * @return Number of mappings in the map
+	 */
+	public int size() {
+		int size = 0;
+		for (Stripe<V> stripe : stripes) {
+			size += stripe.size();
+		}
+		return size;
+	}
+
+	private Stripe<V> stripeFor(int hash) {
+		return stripes.length == 1 ? stripes[0] : stripes[hash >>> stripeShift];
+	}
+
+	// Spreads the bits of the key (finalizer of the 64 bit MurmurHash3)
+	private static int hash(long key) {
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+		return (int) key;
+	}
+
+	/**
+	 * Open addressing table holding the mappings of one stripe. An empty slot
+	 * is marked by a null value, and removals shift the following entries of
+	 * the probe sequence backwards, so the table never holds tombstones.
+	 */
+	private static final class Stripe<V> {
+		private long[] keys;
+		private Object[] values;
+		private int size;
+
+		Stripe() {
+			this.keys = new long[INITIAL_STRIPE_CAPACITY];
+			this.values = new Object[INITIAL_STRIPE_CAPACITY];
+		}
+
+		@SuppressWarnings("unchecked")
+		synchronized V get(long key, int hash) {
+			int mask = keys.length - 1;
+			for (int i = hash & mask; values[i] != null; i = (i + 1) & mask) {
+				if (keys[i] == key) {
+					return (V) values[i];
+				}
+			}
+			return null;
+		}
+
+		@SuppressWarnings("unchecked")
+		synchronized V put(long key, int hash, V value) {
+			int mask = keys.length - 1;
+			int i;
+			for (i = hash & mask; values[i] != null; i = (i + 1) & mask) {
+				if (keys[i] == key) {
+					V previous = (V) values[i];
+					values[i] = value;
+					return previous;
+				}
+			}
+			keys[i] = key;
+			values[i] = value;
+			size++;
+			if (size * 2 > keys.length) {
+				resize();
+			}
+			return null;
+		}
+
+		@SuppressWarnings("unchecked")
+		synchronized V remove(long key, int hash) {
+			int mask = keys.length - 1;
+			int i;
+			for (i = hash & mask; values[i] != null; i = (i + 1) & mask) {
+				if (keys[i] == key) {
+					break;
+				}
+			}
+			if (values[i] == null) {
+				return null;
+			}
+			V previous = (V) values[i];
+			int gap = i;
+			for (int j = (gap + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+				int home = hash(keys[j]) & mask;
+				// Move the entry into the gap if the gap lies on its probe path
+				if (((j - home) & mask) >= ((j - gap) & mask)) {
+					keys[gap] = keys[j];
+					values[gap] = values[j];
+					gap = j;
+				}
+			}
+			values[gap] = null;
+			size--;
+			return previous;
+		}
+
+		synchronized int size() {
+			return size;
+		}
+
+		private void resize() {
+			long[] oldKeys = keys;
+			Object[] oldValues = values;
+			keys = new long[oldKeys.length * 2];
+			values = new Object[oldValues.length * 2];
+			int mask = keys.length - 1;
+			for (int j = 0; j < oldKeys.length; j++) {
+				if (oldValues[j] != null) {
+					int i = hash(oldKeys[j]) & mask;
+					while (values[i] != null) {
+						i = (i + 1) & mask;
+					}
+					keys[i] = oldKeys[j];
+					values[i] = oldValues[j];
+				}
+			}
+		}
+	}
+}
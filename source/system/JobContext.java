@@ -0,0 +1,461 @@
+package system;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import api.Result;
+import api.Streamable;
+import api.Task;
+
+/**
+ * Book-keeping maintained by the compute space ({@link api.Space Space}) for
+ * every job submitted by a client. Each job owns the registry of its waiting
+ * {@link system.Successor Successor} threads and its own queue of
+ * {@link api.Result Result} objects, so that several clients can run jobs in
+ * the same compute space without seeing each other's tasks or results.
+ * 
+ * @author Manasa Chandrasekhar
+ * @author Kowshik Prakasam
+ */
+public class JobContext {
+
+	private static final int REGISTRY_STRIPES_PER_CORE = 4;
+	private static final int RUNTIME_SAMPLES_PER_LEVEL = 64;
+	private static final int MIN_RUNTIME_SAMPLES = 3;
+	/*
+	 * Largest number of tasks of a streaming job that are dispatched but not
+	 * yet executed, plus leaf values waiting to be polled, before further
+	 * tasks are held back
+	 */
+	private static final int MAX_UNPOLLED_LEAF_VALUES = 32;
+	private long id;
+	private long startTime;
+	private ConcurrentLongHashMap<Successor> waitingTasks;
+	private LinkedBlockingQueue<Result<?>> results;
+	private AtomicLong tasksDispatched;
+	private AtomicLong tasksExecuted;
+	private ConcurrentHashMap<Integer, RuntimeSamples> runtimeSamples;
+	private ConcurrentHashMap<Long, Boolean> speculativeTasks;
+	private LinkedBlockingQueue<Object> leafValues;
+	private ArrayDeque<Task<?>> heldTasks;
+	private Set<Long> pendingTasks;
+	private volatile boolean finished;
+	private volatile Throwable failure;
+
+	/**
+	 * 
+	 * @param id
+	 *            Unique ID of the job, handed out to the client as the job's
+	 *            handle
+	 */
+	public JobContext(long id) {
+		this(id, false);
+	}
+
+	/**
+	 * 
+	 * @param id
+	 *            Unique ID of the job, handed out to the client as the job's
+	 *            handle
+	 * @param streaming
+	 *            Whether the values of the job's leaf tasks are streamed to
+	 *            the client as they are computed
+	 */
+	public JobContext(long id, boolean streaming) {
+		this.id = id;
+		this.startTime = System.currentTimeMillis();
+		this.waitingTasks = new ConcurrentLongHashMap<Successor>(
+				REGISTRY_STRIPES_PER_CORE
+						* Runtime.getRuntime().availableProcessors());
+		this.results = new LinkedBlockingQueue<Result<?>>();
+		this.tasksDispatched = new AtomicLong();
+		this.tasksExecuted = new AtomicLong();
+		this.runtimeSamples = new ConcurrentHashMap<Integer, RuntimeSamples>();
+		this.speculativeTasks = new ConcurrentHashMap<Long, Boolean>();
+		if (streaming) {
+			this.leafValues = new LinkedBlockingQueue<Object>();
+			this.heldTasks = new ArrayDeque<Task<?>>();
+			this.pendingTasks = ConcurrentHashMap.newKeySet();
+		}
+	}
+
+	/**
+	 * 
+	 * @return Unique ID of the job
+	 */
+	public long getId() {
+		return this.id;
+	}
+
+	/**
+	 * 
+	 * @return Time at which the job was submitted to the compute space
+	 */
+	public long getStartTime() {
+		return this.startTime;
+	}
+
+	/**
+	 * Thread-safe without locking the job : concurrent calls by different
+	 * proxies only contend if the successors share a stripe of the underlying
+	 * {@link system.ConcurrentLongHashMap ConcurrentLongHashMap}.
+	 * 
+	 * @param s
+	 *            Successor thread to be added to the queue
+	 */
+	public void addSuccessor(Successor s) {
+		waitingTasks.put(s.getId(), s);
+	}
+
+	/**
+	 * 
+	 * @param successorId
+	 *            Successor thread to be removed from the queue
+	 */
+	public void removeSuccessor(long successorId) {
+		waitingTasks.remove(successorId);
+	}
+
+	/**
+	 * 
+	 * @param successorId
+	 *            ID of the successor thread whose Closure object is required
+	 * @return Gets the closure object corresponding to the Successor thread.
+	 */
+	public Successor.Closure getClosure(long successorId) {
+		return waitingTasks.get(successorId).getClosure();
+	}
+
+	/**
+	 * Used to add to the queue of {@link api.Result Result} objects of this
+	 * job
+	 * 
+	 * @param result
+	 *            Result of the root task of the job
+	 */
+	public void putResult(Result<?> result) {
+		finished = true;
+		results.add(result);
+	}
+
+	/**
+	 * Finishes the job without a result, waking up the client waiting for it.
+	 * Only the first failure is kept.
+	 * 
+	 * @param cause
+	 *            Exception thrown by a task of the job
+	 */
+	public synchronized void fail(Throwable cause) {
+		if (failure != null) {
+			return;
+		}
+		failure = cause;
+		finished = true;
+		results.add(new ResultImpl<Object>(startTime, System
+				.currentTimeMillis(), (Object) null));
+	}
+
+	/**
+	 * 
+	 * @return Exception that made the job fail, or null if it has not failed
+	 */
+	public Throwable getFailure() {
+		return failure;
+	}
+
+	/**
+	 * Hands over the value of a task to its parent, or finishes the job if the
+	 * task is the root of the job
+	 * 
+	 * @param aTask
+	 *            Task that produced the value
+	 * @param r
+	 *            Result that carries the value of the task
+	 */
+	public void putValue(Task<?> aTask, Result<?> r) {
+		if (aTask.getId() == aTask.getParentId()) {
+			putResult(r);
+		} else {
+			getClosure(aTask.getParentId()).put(aTask.getId(), r.getValue());
+		}
+	}
+
+	/**
+	 * 
+	 * @return Whether the values of the job's leaf tasks are streamed to the
+	 *         client
+	 */
+	public boolean isStreaming() {
+		return leafValues != null;
+	}
+
+	/**
+	 * Adds the value of a leaf task to the stream of this job, if the job is
+	 * streaming, and then hands it over to the parent task like
+	 * {@link #putValue(Task, Result) putValue}. Once streamed, the value of a
+	 * {@link api.Streamable Streamable} task is replaced by its placeholder,
+	 * so that it is not kept in the closure of the parent. Leaf values are
+	 * streamed before they are passed to the parent task, so that the stream
+	 * is complete once the result of the job is available.
+	 * 
+	 * @param aTask
+	 *            Task that did not decompose
+	 * @param r
+	 *            Result that carries the value of the task
+	 */
+	public void putLeafValue(Task<?> aTask, Result<?> r) {
+		if (isStreaming()) {
+			leafValues.add(r.getValue());
+			pendingTasks.remove(aTask.getId());
+			Object placeholder = null;
+			if (aTask instanceof Streamable<?>) {
+				placeholder = ((Streamable<?>) aTask).getPlaceholder();
+			}
+			if (placeholder != null) {
+				putValue(aTask, new ResultImpl<Object>(r.getStartTime(), r
+						.getEndTime(), placeholder));
+				return;
+			}
+		}
+		putValue(aTask, r);
+	}
+
+	/**
+	 * Waits for the values of leaf tasks, and takes those that have been
+	 * streamed so far, up to the given number
+	 * 
+	 * @param timeoutMillis
+	 *            Longest time to wait for a value, in milliseconds
+	 * @param maxValues
+	 *            Largest number of values taken
+	 * @return Values in the order in which they were computed, an empty list
+	 *         if none was computed within the timeout, or null once every
+	 *         value of the job has been taken
+	 * @throws InterruptedException
+	 */
+	public List<Object> pollLeafValues(long timeoutMillis, int maxValues)
+			throws InterruptedException {
+		if (leafValues == null || (finished && leafValues.isEmpty())) {
+			return null;
+		}
+		List<Object> values = new ArrayList<Object>();
+		Object value = leafValues.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+		if (value != null) {
+			values.add(value);
+			leafValues.drainTo(values, maxValues - 1);
+		}
+		return values;
+	}
+
+	/**
+	 * Records that a task of the job was decomposed into subtasks, rather than
+	 * producing a leaf value
+	 * 
+	 * @param aTask
+	 *            Task in the Divide phase
+	 */
+	public void taskDecomposed(Task<?> aTask) {
+		if (isStreaming()) {
+			pendingTasks.remove(aTask.getId());
+		}
+	}
+
+	/**
+	 * Holds back a task of a streaming job while the tasks dispatched but not
+	 * yet executed and the leaf values waiting to be polled add up to
+	 * {@value #MAX_UNPOLLED_LEAF_VALUES}, so that a client that falls behind
+	 * bounds the values kept for it. Tasks dispatched again, e.g. after their
+	 * computer failed, are never held.
+	 * 
+	 * @param aTask
+	 *            Task in the Divide phase about to be dispatched
+	 * @return True if the task is held until
+	 *         {@link #releaseTasks() releaseTasks} hands it back
+	 */
+	public synchronized boolean holdTask(Task<?> aTask) {
+		if (!isStreaming() || pendingTasks.contains(aTask.getId())) {
+			return false;
+		}
+		int outstanding = pendingTasks.size() + leafValues.size();
+		if (outstanding >= MAX_UNPOLLED_LEAF_VALUES) {
+			heldTasks.add(aTask);
+			return true;
+		}
+		pendingTasks.add(aTask.getId());
+		return false;
+	}
+
+	/**
+	 * 
+	 * @return Tasks held back by {@link #holdTask(Task) holdTask} that may be
+	 *         dispatched now that leaf values have been polled, in the order
+	 *         in which they were held
+	 */
+	public synchronized List<Task<?>> releaseTasks() {
+		List<Task<?>> released = new ArrayList<Task<?>>();
+		if (heldTasks == null) {
+			return released;
+		}
+		int room = MAX_UNPOLLED_LEAF_VALUES - pendingTasks.size()
+				- leafValues.size();
+		while (released.size() < room && !heldTasks.isEmpty()) {
+			released.add(heldTasks.poll());
+		}
+		return released;
+	}
+
+	/**
+	 * Blocks until a {@link api.Result Result} is added to the queue of this
+	 * job
+	 * 
+	 * @return A result from the beginning of the queue
+	 * @throws InterruptedException
+	 */
+	public Result<?> takeResult() throws InterruptedException {
+		return results.take();
+	}
+
+	/**
+	 * Records that a task of this job was handed over to a proxy
+	 */
+	public void taskDispatched() {
+		tasksDispatched.incrementAndGet();
+	}
+
+	/**
+	 * Records that a task of this job was executed by a computer
+	 */
+	public void taskExecuted() {
+		tasksExecuted.incrementAndGet();
+	}
+
+	/**
+	 * 
+	 * @return Number of tasks of this job handed over to proxies so far
+	 */
+	public long getNumOfTasksDispatched() {
+		return tasksDispatched.get();
+	}
+
+	/**
+	 * 
+	 * @return Number of tasks of this job executed by computers so far
+	 */
+	public long getNumOfTasksExecuted() {
+		return tasksExecuted.get();
+	}
+
+	/**
+	 * Records the time taken by a task of this job. Only the most recent
+	 * samples of every level of the task tree are kept.
+	 * 
+	 * @param level
+	 *            Level of the task in the task tree
+	 * @param runtime
+	 *            Time taken by the task in milliseconds
+	 */
+	public void recordRuntime(int level, long runtime) {
+		RuntimeSamples samples = runtimeSamples.get(level);
+		if (samples == null) {
+			runtimeSamples.putIfAbsent(level, new RuntimeSamples());
+			samples = runtimeSamples.get(level);
+		}
+		samples.add(runtime);
+	}
+
+	/**
+	 * 
+	 * @param level
+	 *            Level of the task tree
+	 * @return Median time taken by the recently executed tasks of the given
+	 *         level, or -1 if too few tasks of that level have been executed
+	 */
+	public long getMedianRuntime(int level) {
+		RuntimeSamples samples = runtimeSamples.get(level);
+		if (samples == null) {
+			return -1;
+		}
+		return samples.getMedian();
+	}
+
+	/*
+	 * Most recent runtimes of the tasks of one level of the task tree, along
+	 * with the number of runtimes recorded so far, which are published
+	 * together so that no thread sees one without the other
+	 */
+	private static class RuntimeSamples {
+		private long[] runtimes = new long[RUNTIME_SAMPLES_PER_LEVEL];
+		private long count;
+
+		synchronized void add(long runtime) {
+			runtimes[(int) (count % RUNTIME_SAMPLES_PER_LEVEL)] = runtime;
+			count++;
+		}
+
+		synchronized long getMedian() {
+			if (count < MIN_RUNTIME_SAMPLES) {
+				return -1;
+			}
+			int numOfSamples = (int) Math.min(count, RUNTIME_SAMPLES_PER_LEVEL);
+			long[] sorted = Arrays.copyOf(runtimes, numOfSamples);
+			Arrays.sort(sorted);
+			return sorted[numOfSamples / 2];
+		}
+	}
+
+	/**
+	 * Marks a task as having a speculative copy in flight
+	 * 
+	 * @param taskId
+	 *            ID of the straggling task
+	 * @return False if the task already has a speculative copy, or has
+	 *         already completed
+	 */
+	public boolean startSpeculation(long taskId) {
+		return speculativeTasks.putIfAbsent(taskId, Boolean.FALSE) == null;
+	}
+
+	/**
+	 * Withdraws a speculation started by
+	 * {@link #startSpeculation(long) startSpeculation}, as long as neither copy
+	 * has completed yet
+	 * 
+	 * @param taskId
+	 *            ID of the straggling task
+	 */
+	public void cancelSpeculation(long taskId) {
+		speculativeTasks.remove(taskId, Boolean.FALSE);
+	}
+
+	/**
+	 * Decides which copy of a speculatively executed task is allowed to
+	 * deliver its result. Tasks without a speculative copy always win.
+	 * 
+	 * @param taskId
+	 *            ID of a completed task
+	 * @return True if the result of the task is to be processed, false if
+	 *         another copy of the task has already completed
+	 */
+	public boolean claimCompletion(long taskId) {
+		if (!speculativeTasks.containsKey(taskId)) {
+			return true;
+		}
+		return speculativeTasks.replace(taskId, Boolean.FALSE, Boolean.TRUE);
+	}
+
+	/**
+	 * 
+	 * @return Number of tasks of this job for which a speculative copy was
+	 *         launched
+	 */
+	public int getNumOfSpeculations() {
+		return speculativeTasks.size();
+	}
+}
@@ -0,0 +1,27 @@
+package system;
+
+import java.util.List;
+
+/**
+ * Places each task on the proxy holding the fewest tasks, whether queued or in
+ * flight, relative to the number of slots of its computer
+ * 
+ * @author Manasa Chandrasekhar
+ * @author Kowshik Prakasam
+ */
+public class LeastLoadedPlacement implements PlacementPolicy {
+
+	@Override
+	public ComputerProxy select(List<ComputerProxy> proxies) {
+		ComputerProxy leastLoaded = null;
+		double minLoad = Double.MAX_VALUE;
+		for (ComputerProxy aProxy : proxies) {
+			double load = (double) aProxy.getLoad() / aProxy.getNumOfSlots();
+			if (load < minLoad) {
+				leastLoaded = aProxy;
+				minLoad = load;
+			}
+		}
+		return leastLoaded;
+	}
+}
@@ -0,0 +1,27 @@
+package system;
+
+import java.util.List;
+
+/**
+ * Decides on which {@link system.ComputerProxy ComputerProxy} a task is placed
+ * when it is dispatched by the compute space ({@link api.Space Space}).
+ * Implementations can use the live queue length ({@link ComputerProxy#getLoad()
+ * getLoad()}) and observed completion rate ({@link ComputerProxy#getThroughput()
+ * getThroughput()}) of each proxy.
+ * 
+ * @author Manasa Chandrasekhar
+ * @author Kowshik Prakasam
+ */
+public interface PlacementPolicy {
+
+	/**
+	 * Called with the lock of the list of proxies held, so that the list does
+	 * not change while a proxy is chosen
+	 * 
+	 * @param proxies
+	 *            Proxies of the computers registered to the compute space. The
+	 *            list is never empty.
+	 * @return Proxy on which the next task is to be placed
+	 */
+	ComputerProxy select(List<ComputerProxy> proxies);
+}
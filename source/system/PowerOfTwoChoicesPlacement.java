@@ -0,0 +1,35 @@
+package system;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Samples two proxies at random and places each task on the less loaded one.
+ * Nearly as well balanced as {@link system.LeastLoadedPlacement
+ * LeastLoadedPlacement}, while reading the load of only two proxies per task.
+ * 
+ * @author Manasa Chandrasekhar
+ * @author Kowshik Prakasam
+ */
+public class PowerOfTwoChoicesPlacement implements PlacementPolicy {
+
+	private Random random = new Random();
+
+	@Override
+	public ComputerProxy select(List<ComputerProxy> proxies) {
+		int numOfProxies = proxies.size();
+		ComputerProxy first = proxies.get(random.nextInt(numOfProxies));
+		if (numOfProxies == 1) {
+			return first;
+		}
+		// Second choice is distinct from the first
+		int secondIndex = random.nextInt(numOfProxies - 1);
+		if (proxies.get(secondIndex) == first) {
+			secondIndex = numOfProxies - 1;
+		}
+		ComputerProxy second = proxies.get(secondIndex);
+		// Loads are compared relative to the number of slots of each computer
+		return (long) first.getLoad() * second.getNumOfSlots() <= (long) second
+				.getLoad() * first.getNumOfSlots() ? first : second;
+	}
+}
@@ -0,0 +1,20 @@
+package system;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Places each task on a proxy chosen uniformly at random
+ * 
+ * @author Manasa Chandrasekhar
+ * @author Kowshik Prakasam
+ */
+public class RandomPlacement implements PlacementPolicy {
+
+	private Random random = new Random();
+
+	@Override
+	public ComputerProxy select(List<ComputerProxy> proxies) {
+		return proxies.get(random.nextInt(proxies.size()));
+	}
+}
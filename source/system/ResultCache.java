@@ -0,0 +1,118 @@
+package system;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of the values of {@link api.Cacheable Cacheable} tasks, shared
+ * by all jobs of a compute space. Entries are weighted by the size of their
+ * values, and the least recently used entries are evicted once the total
+ * weight exceeds the capacity. All methods are thread-safe.
+ *
+ * @author Manasa Chandrasekhar
+ * @author Kowshik Prakasam
+ */
+public class ResultCache {
+
+	private long capacity;
+	private long weight;
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	// Iterated from the least to the most recently used entry
+	private LinkedHashMap<Object, Entry> entries;
+
+	private static class Entry {
+		private Object value;
+		private long weight;
+
+		Entry(Object value, long weight) {
+			this.value = value;
+			this.weight = weight;
+		}
+	}
+
+	/**
+	 *
+	 * @param capacity
+	 *            Largest total weight of the cached values, in bytes
+	 */
+	public ResultCache(long capacity) {
+		this.capacity = capacity;
+		this.entries = new LinkedHashMap<Object, Entry>(16, 0.75f, true);
+	}
+
+	/**
+	 *
+	 * @param key
+	 *            Cache key of a task
+	 * @return Value cached for the key, or null if there is none
+	 */
+	public synchronized Object get(Object key) {
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			misses++;
+			return null;
+		}
+		hits++;
+		return entry.value;
+	}
+
+	/**
+	 * Caches a value, evicting the least recently used values if needed.
+	 * Values heavier than the whole cache are not cached.
+	 *
+	 * @param key
+	 *            Cache key of the task that computed the value
+	 * @param value
+	 *            Value of the task
+	 * @param valueWeight
+	 *            Size of the value, in bytes
+	 */
+	public synchronized void put(Object key, Object value, long valueWeight) {
+		if (valueWeight > capacity) {
+			return;
+		}
+		Entry previous = entries.put(key, new Entry(value, valueWeight));
+		if (previous != null) {
+			weight -= previous.weight;
+		}
+		weight += valueWeight;
+		Iterator<Map.Entry<Object, Entry>> eldest = entries.entrySet()
+				.iterator();
+		while (weight > capacity) {
+			weight -= eldest.next().getValue().weight;
+			eldest.remove();
+			evictions++;
+		}
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 *
+	 * @return Total weight of the cached values, in bytes
+	 */
+	public synchronized long getWeight() {
+		return weight;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return entries.size() + " values (" + weight / 1024 + " of "
+				+ capacity / 1024 + " KB), " + hits + " hits, " + misses
+				+ " misses, " + evictions + " evictions";
+	}
+}
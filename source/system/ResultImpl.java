@@ -1,6 +1,10 @@
 package system;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
 import java.util.List;
 
 import api.Result;
@@ -9,17 +13,33 @@ import api.Task;
 /**
  * Implementation of the {@link api.Result Result} interface
  * 
+ * Results are encoded by hand, since one is returned for every task executed
+ * : Integer values are written as plain ints, and list values and subtasks as
+ * a count followed by their elements, instead of whole Vector objects. Lists
+ * are therefore received as ArrayList objects.
+ * 
  * @author Manasa Chandrasekhar
  * @author Kowshik Prakasam
  */
-public class ResultImpl<T> implements Result<T>, Serializable {
+public class ResultImpl<T> implements Result<T>, Externalizable {
 
 	private static final long serialVersionUID = -7688137730920618986L;
+	private static final byte NULL_VALUE = 0;
+	private static final byte INT_VALUE = 1;
+	private static final byte LIST_VALUE = 2;
+	private static final byte OBJECT_VALUE = 3;
+	private static final byte SUBTASKS = 4;
 	private long startTime;
 	private long endTime;
 	private T result;
 	private List<Task<T>> subTasks;
 
+	/**
+	 * Used by deserialization only
+	 */
+	public ResultImpl() {
+	}
+
 	/**
 	 * 
 	 * @param startTime
@@ -121,4 +141,65 @@ public class ResultImpl<T> implements Result<T>, Serializable {
 
 	}
 
+	@Override
+	public void writeExternal(ObjectOutput out) throws IOException {
+		out.writeLong(startTime);
+		out.writeLong(endTime);
+		if (subTasks != null) {
+			out.writeByte(SUBTASKS);
+			writeList(out, subTasks);
+		} else if (result == null) {
+			out.writeByte(NULL_VALUE);
+		} else if (result instanceof Integer) {
+			out.writeByte(INT_VALUE);
+			out.writeInt((Integer) result);
+		} else if (result instanceof List) {
+			out.writeByte(LIST_VALUE);
+			writeList(out, (List<?>) result);
+		} else {
+			out.writeByte(OBJECT_VALUE);
+			out.writeObject(result);
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void readExternal(ObjectInput in) throws IOException,
+			ClassNotFoundException {
+		startTime = in.readLong();
+		endTime = in.readLong();
+		switch (in.readByte()) {
+		case SUBTASKS:
+			subTasks = (List<Task<T>>) (List<?>) readList(in);
+			break;
+		case INT_VALUE:
+			result = (T) Integer.valueOf(in.readInt());
+			break;
+		case LIST_VALUE:
+			result = (T) readList(in);
+			break;
+		case OBJECT_VALUE:
+			result = (T) in.readObject();
+			break;
+		}
+	}
+
+	private static void writeList(ObjectOutput out, List<?> list)
+			throws IOException {
+		out.writeInt(list.size());
+		for (Object element : list) {
+			out.writeObject(element);
+		}
+	}
+
+	private static List<Object> readList(ObjectInput in) throws IOException,
+			ClassNotFoundException {
+		int size = in.readInt();
+		List<Object> list = new ArrayList<Object>(size);
+		for (int index = 0; index < size; index++) {
+			list.add(in.readObject());
+		}
+		return list;
+	}
+
 }
@@ -4,16 +4,16 @@ import java.rmi.RemoteException;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
 import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Random;
-import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import api.Cacheable;
 import api.Result;
 import api.Space;
 import api.Task;
@@ -33,6 +33,24 @@ import api.Task;
  * href="http://en.wikipedia.org/wiki/Cilk">Cilk</a> runtime. Please read the
  * architecture of Cilk to understand the class better.
  * 
+ * Tasks are placed on a {@link system.ComputerProxy ComputerProxy} chosen by a
+ * {@link system.PlacementPolicy PlacementPolicy}, selected with the system
+ * property <code>space.placement</code> : <code>random</code> (default),
+ * <code>leastloaded</code>, <code>poweroftwo</code> or <code>throughput</code>.
+ * When the space is started with the system property
+ * <code>space.scheduler=workstealing</code>, proxies whose queues run dry steal
+ * tasks from the tail of the most loaded proxy's queue, so that uneven subtrees
+ * are spread across the whole cluster. The system property
+ * <code>space.window</code> sets the number of batches of tasks kept in flight
+ * per slot advertised by each registered {@link system.Computer Computer}.
+ * Unless the space is started with
+ * <code>space.speculation=false</code>, tasks that run far longer than their
+ * siblings are speculatively re-executed on idle computers (see
+ * {@link system.Speculator Speculator}). When the space is started with
+ * <code>space.dispatch=pull</code>, tasks are not pushed to proxies at all :
+ * they wait in a single queue, from which computers pull batches whenever
+ * they have free slots.
+ * 
  * @author Manasa Chandrasekhar
  * @author Kowshik Prakasam
  * 
@@ -42,10 +60,33 @@ public class SpaceImpl extends UnicastRemoteObject implements Space,
 
 	private Thread t;
 	private static final long serialVersionUID = 3093568798450948074L;
-	private Map<String, Successor> waitingTasks;
-	private LinkedBlockingQueue<Result<?>> results;
+	private ConcurrentHashMap<Long, JobContext> jobs;
+	private AtomicLong nextJobId;
+	private LinkedBlockingQueue<Successor> readySuccessors;
+	private LinkedBlockingQueue<Task<?>> unassignedTasks;
 	private List<ComputerProxy> proxies;
 	private static final int PORT_NUMBER = 2672;
+	private static final String SCHEDULER_PROPERTY = "space.scheduler";
+	private static final String WORK_STEALING_SCHEDULER = "workstealing";
+	private static final String WINDOW_PROPERTY = "space.window";
+	private static final int DEFAULT_WINDOW = 2;
+	private static final String SPECULATION_PROPERTY = "space.speculation";
+	private static final String PLACEMENT_PROPERTY = "space.placement";
+	private static final String DISPATCH_PROPERTY = "space.dispatch";
+	private static final String PULL_DISPATCH = "pull";
+	/*
+	 * Capacity of the cache of task values in megabytes, 0 disables the cache
+	 */
+	private static final String CACHE_SIZE_PROPERTY = "space.cacheSize";
+	private static final int DEFAULT_CACHE_SIZE = 64;
+	private boolean workStealing;
+	private boolean pullBased;
+	private LinkedBlockingQueue<Task<?>> sharedTasks;
+	private ConcurrentHashMap<Computer, ComputerProxy> computers;
+	private int window;
+	private Speculator speculator;
+	private PlacementPolicy placementPolicy;
+	private ResultCache cache;
 
 	/**
 	 * Default constructor
@@ -53,55 +94,227 @@ public class SpaceImpl extends UnicastRemoteObject implements Space,
 	 * @throws RemoteException
 	 */
 	public SpaceImpl() throws RemoteException {
+		this(false, DEFAULT_WINDOW, true, new RandomPlacement(), false,
+				DEFAULT_CACHE_SIZE * 1024L * 1024L);
+	}
+
+	/**
+	 * 
+	 * @param workStealing
+	 *            If true, idle {@link system.ComputerProxy ComputerProxy}
+	 *            objects steal tasks queued in other proxies
+	 * @param window
+	 *            Number of batches of tasks kept in flight per slot advertised
+	 *            by each registered {@link system.Computer Computer}
+	 * @param speculation
+	 *            If true, straggling tasks are speculatively re-executed on
+	 *            idle computers
+	 * @param placementPolicy
+	 *            Decides on which {@link system.ComputerProxy ComputerProxy}
+	 *            each task is placed
+	 * @param pullBased
+	 *            If true, tasks are held in a single queue from which
+	 *            computers pull batches when they have free slots, instead of
+	 *            being pushed to the proxies
+	 * @param cacheCapacity
+	 *            Largest total size in bytes of the values of
+	 *            {@link api.Cacheable Cacheable} tasks kept for reuse by later
+	 *            tasks, 0 to disable caching
+	 * @throws RemoteException
+	 */
+	public SpaceImpl(boolean workStealing, int window, boolean speculation,
+			PlacementPolicy placementPolicy, boolean pullBased,
+			long cacheCapacity) throws RemoteException {
+		this.workStealing = workStealing;
+		this.pullBased = pullBased;
+		this.placementPolicy = placementPolicy;
+		this.window = window;
+		if (cacheCapacity > 0) {
+			this.cache = new ResultCache(cacheCapacity);
+		}
 
-		this.waitingTasks = Collections
-				.synchronizedMap(new HashMap<String, Successor>());
-		this.results = new LinkedBlockingQueue<Result<?>>();
+		this.jobs = new ConcurrentHashMap<Long, JobContext>();
+		this.nextJobId = new AtomicLong();
+		this.readySuccessors = new LinkedBlockingQueue<Successor>();
+		this.unassignedTasks = new LinkedBlockingQueue<Task<?>>();
+		this.sharedTasks = new LinkedBlockingQueue<Task<?>>();
+		this.computers = new ConcurrentHashMap<Computer, ComputerProxy>();
 		this.proxies = Collections
 				.synchronizedList(new Vector<ComputerProxy>());
 		t = new Thread(this, "Space");
 		t.start();
+		if (speculation) {
+			this.speculator = new Speculator(this, proxies);
+			this.speculator.start();
+		}
 	}
 
 	@Override
 	/**
-	 *  Remote method used by the clients to add tasks to the queue of tasks in this compute space.
-	 *  This method is thread-safe and blocks during concurrent calls to this method by clients running simultaneously (or) {@link system.ComputerProxy ComputerProxy} objects trying to return {@link api.Result Result} objects to this compute space.
+	 *  Remote method used by the clients to submit a job to this compute space. The task becomes the root of a new job, which is tracked separately from all other jobs running in this compute space.
+	 *  This method is thread-safe and can be called concurrently by several clients.
+	 *  @return Handle of the new job, to be passed to {@link #takeResult(long) takeResult(long)}
 	 *  @throws RemoteException
 	 */
-	public void put(Task<?> aTask) throws RemoteException {
-		if (proxies.size() > 0) {
-			int random = new Random().nextInt(this.proxies.size());
-			proxies.get(random).addTask(aTask);
+	public long put(Task<?> aTask) throws RemoteException {
+		return put(aTask, false);
+	}
+
+	@Override
+	/**
+	 *  Remote method used by the clients to submit a job whose leaf values are streamed back with {@link #pollLeafValues(long, long, int) pollLeafValues(long, long, int)} as they are computed.
+	 *  @return Handle of the new job
+	 *  @throws RemoteException
+	 */
+	public long put(Task<?> aTask, boolean streaming) throws RemoteException {
+		JobContext job = new JobContext(nextJobId.incrementAndGet(), streaming);
+		jobs.put(job.getId(), job);
+		aTask.setJobId(job.getId());
+		dispatch(aTask);
+		return job.getId();
+	}
+
+	/**
+	 * Hands over a task of a running job to the {@link system.ComputerProxy
+	 * ComputerProxy} chosen by the placement policy for execution. Tasks
+	 * of jobs that have already finished are dropped. If no computer is
+	 * registered, the task is held until one registers. In a pull based
+	 * compute space, the task is added to the queue shared by all computers.
+	 * {@link api.Cacheable Cacheable} tasks whose value is already cached are
+	 * not executed at all.
+	 * 
+	 * @param aTask
+	 *            Task to be executed
+	 */
+	public void dispatch(Task<?> aTask) {
+		JobContext job = jobs.get(aTask.getJobId());
+		if (job == null || job.getFailure() != null) {
 			return;
+		}
+		if (aTask.getStatus() == Task.Status.DECOMPOSE && job.holdTask(aTask)) {
+			return;
+		}
+		if (putCachedValue(job, aTask)) {
+			return;
+		}
+		if (pullBased) {
+			job.taskDispatched();
+			sharedTasks.add(aTask);
+			return;
+		}
+		ComputerProxy aProxy = null;
+		synchronized (proxies) {
+			if (proxies.size() > 0) {
+				aProxy = placementPolicy.select(proxies);
+			} else {
+				System.err
+						.println("Holding task until a computer registers, due to absence of computer proxies");
+				unassignedTasks.add(aTask);
+				return;
+			}
+		}
+		job.taskDispatched();
+		aProxy.addTask(aTask);
+	}
 
+	/*
+	 * Hands over the cached value of a task that has not been decomposed yet
+	 * to the task's parent. Returns false if the value is not cached.
+	 */
+	private boolean putCachedValue(JobContext job, Task<?> aTask) {
+		if (cache == null || aTask.getStatus() != Task.Status.DECOMPOSE
+				|| !(aTask instanceof Cacheable<?>)) {
+			return false;
 		}
+		return putCachedValue(job, (Cacheable<?>) aTask, aTask);
+	}
 
-		System.err
-				.println("Unable to register tasks due to absence of computer proxies");
+	/*
+	 * Captures the value type of the task, so that the cached value can be
+	 * handed to fromCache. Tasks sharing a cache key compute the same value,
+	 * so the cached value is of that type.
+	 */
+	private <T> boolean putCachedValue(JobContext job, Cacheable<T> cacheable,
+			Task<?> aTask) {
+		Object key = cacheable.getCacheKey();
+		if (key == null) {
+			return false;
+		}
+		@SuppressWarnings("unchecked")
+		T cachedValue = (T) cache.get(key);
+		if (cachedValue == null) {
+			return false;
+		}
+		long now = System.currentTimeMillis();
+		T value = cacheable.fromCache(cachedValue);
+		job.putLeafValue(aTask, new ResultImpl<T>(now, now, value));
+		return true;
+	}
 
+	/**
+	 * Caches the value of a task, if the task is {@link api.Cacheable
+	 * Cacheable} and caching is enabled
+	 * 
+	 * @param aTask
+	 *            Task that produced the value
+	 * @param value
+	 *            Value of the task
+	 */
+	public void cacheValue(Task<?> aTask, Object value) {
+		if (cache != null && aTask instanceof Cacheable<?>) {
+			Cacheable<?> cacheable = (Cacheable<?>) aTask;
+			Object key = cacheable.getCacheKey();
+			if (key != null) {
+				cache.put(key, value, cacheable.getCacheWeight());
+			}
+		}
 	}
 
 	/**
-	 * Used to add to the queue of {@link api.Result Result} objects in this
-	 * compute space
 	 * 
-	 * @throws RemoteException
+	 * @param jobId
+	 *            Handle of a job
+	 * @return Book-keeping of the job, or null if the job has finished
 	 */
-	public void putResult(Result<?> result) throws RemoteException {
-		results.add(result);
+	public JobContext getJob(long jobId) {
+		return jobs.get(jobId);
 	}
 
 	@Override
 	/** 
-	 * Remote method for the clients to fetch results from the compute space. This method is thread-safe and blocks until a {@link api.Result Result} is added to the queue by Computer Proxies.
+	 * Remote method for the clients to fetch the result of a job from the compute space. This method is thread-safe and blocks until a {@link api.Result Result} is added to the job's queue by Computer Proxies. The job is finished once its result has been taken.
 	 * 
-	 * @return A generic result from the beginning of the queue
+	 * @param jobId Handle returned by {@link #put(Task) put(Task)} when the job was submitted
+	 * @return The result of the job's root task
 	 * @throws RemoteException
 	 */
-	public Result<?> takeResult() throws RemoteException {
+	public Result<?> takeResult(long jobId) throws RemoteException {
+		JobContext job = jobs.get(jobId);
+		if (job == null) {
+			throw new IllegalArgumentException("Unknown job : " + jobId);
+		}
 		try {
-			return results.take();
+			Result<?> result = job.takeResult();
+			jobs.remove(jobId);
+			if (job.getFailure() != null) {
+				throw new RemoteException("Job " + jobId + " failed", job
+						.getFailure());
+			}
+			System.out.println("Job " + jobId + " : "
+					+ job.getNumOfTasksExecuted() + " tasks executed in "
+					+ (System.currentTimeMillis() - job.getStartTime())
+					+ " ms");
+			if (workStealing) {
+				System.out.println("Tasks stolen so far : " + getStealCount());
+			}
+			if (cache != null) {
+				System.out.println("Result cache : " + cache);
+			}
+			if (job.getNumOfSpeculations() > 0) {
+				System.out.println("Tasks speculatively re-executed : "
+						+ job.getNumOfSpeculations());
+			}
+			return result;
 		} catch (InterruptedException e) {
 			e.printStackTrace();
 		}
@@ -109,15 +322,234 @@ public class SpaceImpl extends UnicastRemoteObject implements Space,
 
 	}
 
+	@Override
+	/**
+	 * Remote method for the clients to fetch the leaf values of a streaming job computed so far. This method is thread-safe and blocks until a value is computed or the timeout expires. Tasks of the job held back until the client catches up are dispatched once the values have been taken.
+	 * 
+	 * @param jobId Handle returned by {@link #put(Task, boolean) put(Task, boolean)}
+	 * @param timeoutMillis Longest time to wait for a value, in milliseconds
+	 * @param maxValues Largest number of values returned
+	 * @return Leaf values computed since the previous call, or null once all of them have been returned
+	 * @throws RemoteException
+	 */
+	public List<?> pollLeafValues(long jobId, long timeoutMillis,
+			int maxValues) throws RemoteException {
+		JobContext job = jobs.get(jobId);
+		if (job == null) {
+			throw new IllegalArgumentException("Unknown job : " + jobId);
+		}
+		if (!job.isStreaming()) {
+			throw new IllegalArgumentException("Job " + jobId
+					+ " was not submitted for streaming");
+		}
+		if (maxValues < 1) {
+			throw new IllegalArgumentException("Invalid number of values : "
+					+ maxValues);
+		}
+		try {
+			List<Object> values = job.pollLeafValues(timeoutMillis, maxValues);
+			for (Task<?> aTask : job.releaseTasks()) {
+				dispatch(aTask);
+			}
+			return values;
+		} catch (InterruptedException e) {
+			/*
+			 * Returning null would tell the client that the stream is
+			 * complete, so the interruption is reported instead
+			 */
+			Thread.currentThread().interrupt();
+			throw new RemoteException(
+					"Interrupted while waiting for the leaf values of job "
+							+ jobId, e);
+		}
+	}
+
 	/**
-	 * Remote method for the computers to register to the compute space
+	 * Remote method for the computers to register to the compute space. The
+	 * proxy of the computer keeps <code>window</code> batches in flight for
+	 * every slot advertised by the computer. In a pull based compute space,
+	 * the computer is expected to pull tasks through
+	 * {@link #takeTasks(Computer, int, long) takeTasks} instead.
 	 * 
 	 * @throws RemoteException
 	 */
 	@Override
-	public void register(Computer computer) throws RemoteException {
-		ComputerProxy aProxy = new ComputerProxy(computer, this);
-		this.proxies.add(aProxy);
+	public void register(Computer computer, int numOfSlots)
+			throws RemoteException {
+		ComputerProxy aProxy;
+		if (pullBased) {
+			aProxy = new ComputerProxy(computer, this, Math.max(numOfSlots, 1),
+					true);
+		} else {
+			aProxy = new ComputerProxy(computer, this, Math.max(numOfSlots, 1)
+					* window, false);
+		}
+		List<Task<?>> heldTasks = new ArrayList<Task<?>>();
+		synchronized (proxies) {
+			this.proxies.add(aProxy);
+			this.computers.put(computer, aProxy);
+			unassignedTasks.drainTo(heldTasks);
+		}
+		for (Task<?> aTask : heldTasks) {
+			dispatch(aTask);
+		}
+	}
+
+	/**
+	 * Removes the proxy of a computer that has been declared dead, so that no
+	 * further tasks are assigned to it
+	 * 
+	 * @param aProxy
+	 *            Proxy to be removed
+	 */
+	public void removeProxy(ComputerProxy aProxy) {
+		synchronized (proxies) {
+			this.proxies.remove(aProxy);
+			this.computers.values().remove(aProxy);
+		}
+	}
+
+	@Override
+	/**
+	 * @see system.Computer2Space Computer2Space
+	 */
+	public boolean isPullBased() {
+		return this.pullBased;
+	}
+
+	@Override
+	/**
+	 * Remote method for computers in a pull based compute space. Tasks queued
+	 * on the computer's own proxy, such as speculative copies, are taken
+	 * first, followed by tasks from the shared queue.
+	 * 
+	 * @see system.Computer2Space Computer2Space
+	 */
+	public TaskBatch takeTasks(Computer computer, int maxTasks,
+			long timeoutMillis) throws RemoteException {
+		ComputerProxy aProxy = computers.get(computer);
+		if (aProxy == null || !aProxy.isAlive()) {
+			throw new IllegalStateException(
+					"Computer is not registered with the compute space");
+		}
+		List<Task<?>> tasksInBatch = new ArrayList<Task<?>>(maxTasks);
+		Task<?> aTask;
+		while (tasksInBatch.size() < maxTasks
+				&& (aTask = aProxy.pollTask()) != null) {
+			tasksInBatch.add(aTask);
+		}
+		if (tasksInBatch.isEmpty()) {
+			try {
+				aTask = sharedTasks.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				e.printStackTrace();
+				aTask = null;
+			}
+			if (aTask == null) {
+				return new TaskBatch();
+			}
+			tasksInBatch.add(aTask);
+		}
+		sharedTasks.drainTo(tasksInBatch, maxTasks - tasksInBatch.size());
+		return aProxy.leaseTasks(tasksInBatch);
+	}
+
+	@Override
+	/**
+	 * Remote method for computers in a pull based compute space
+	 * 
+	 * @see system.Computer2Space Computer2Space
+	 */
+	public void putResults(Computer computer, long batchId,
+			List<Result<?>> results) throws RemoteException {
+		ComputerProxy aProxy = computers.get(computer);
+		if (aProxy != null) {
+			aProxy.completeLease(batchId, results);
+		}
+	}
+
+	@Override
+	/**
+	 * Remote method for computers in a pull based compute space
+	 * 
+	 * @see system.Computer2Space Computer2Space
+	 */
+	public void failBatch(Computer computer, long batchId, RuntimeException e)
+			throws RemoteException {
+		ComputerProxy aProxy = computers.get(computer);
+		if (aProxy != null) {
+			aProxy.failLease(batchId, e);
+		}
+	}
+
+	/**
+	 * 
+	 * @return True if idle proxies steal tasks from busy proxies
+	 */
+	public boolean isWorkStealing() {
+		return this.workStealing;
+	}
+
+	/**
+	 * Steals a task from the tail of the queue of the most loaded proxy
+	 * 
+	 * @param thief
+	 *            Idle proxy on whose behalf the task is stolen
+	 * @return A stolen task, or null if no other proxy has queued tasks
+	 */
+	public Task<?> stealTask(ComputerProxy thief) {
+		ComputerProxy victim = null;
+		int maxQueueLength = 0;
+		synchronized (proxies) {
+			for (ComputerProxy aProxy : proxies) {
+				int queueLength = aProxy.getQueueLength();
+				if (aProxy != thief && queueLength > maxQueueLength) {
+					victim = aProxy;
+					maxQueueLength = queueLength;
+				}
+			}
+		}
+		if (victim == null) {
+			return null;
+		}
+		return victim.stealTask();
+	}
+
+	/**
+	 * 
+	 * @return Total number of tasks stolen by all proxies
+	 */
+	public long getStealCount() {
+		long stealCount = 0;
+		synchronized (proxies) {
+			for (ComputerProxy aProxy : proxies) {
+				stealCount += aProxy.getStealCount();
+			}
+		}
+		return stealCount;
+	}
+
+	/**
+	 * 
+	 * @param name
+	 *            One of <code>random</code>, <code>leastloaded</code>,
+	 *            <code>poweroftwo</code> or <code>throughput</code>
+	 * @return The placement policy of the given name, or random placement if
+	 *         the name is null or unknown
+	 */
+	private static PlacementPolicy createPlacementPolicy(String name) {
+		if ("leastloaded".equals(name)) {
+			return new LeastLoadedPlacement();
+		} else if ("poweroftwo".equals(name)) {
+			return new PowerOfTwoChoicesPlacement();
+		} else if ("throughput".equals(name)) {
+			return new ThroughputWeightedPlacement();
+		}
+		if (name != null && !"random".equals(name)) {
+			System.err.println("Unknown placement policy " + name
+					+ ", using random placement");
+		}
+		return new RandomPlacement();
 	}
 
 	/**
@@ -133,7 +565,19 @@ public class SpaceImpl extends UnicastRemoteObject implements Space,
 		}
 		try {
 
-			Space space = new SpaceImpl();
+			boolean workStealing = WORK_STEALING_SCHEDULER
+					.equals(System.getProperty(SCHEDULER_PROPERTY));
+			int window = Integer.getInteger(WINDOW_PROPERTY, DEFAULT_WINDOW);
+			boolean speculation = !"false".equals(System
+					.getProperty(SPECULATION_PROPERTY));
+			PlacementPolicy placementPolicy = createPlacementPolicy(System
+					.getProperty(PLACEMENT_PROPERTY));
+			boolean pullBased = PULL_DISPATCH.equals(System
+					.getProperty(DISPATCH_PROPERTY));
+			long cacheCapacity = Integer.getInteger(CACHE_SIZE_PROPERTY,
+					DEFAULT_CACHE_SIZE) * 1024L * 1024L;
+			Space space = new SpaceImpl(workStealing, window, speculation,
+					placementPolicy, pullBased, cacheCapacity);
 			Registry registry = LocateRegistry.createRegistry(PORT_NUMBER);
 			registry.rebind(Space.SERVICE_NAME, space);
 			System.out.println("Space instance bound");
@@ -145,57 +589,30 @@ public class SpaceImpl extends UnicastRemoteObject implements Space,
 	}
 
 	/**
-	 * Polls for {@link system.Successor Successor} threads to be execute once
-	 * they move into READY status
+	 * Dispatches {@link system.Successor Successor} threads as soon as they
+	 * move into READY status. Blocks while no successor is ready, so the
+	 * compute space stays idle between compose phases.
 	 */
 	@Override
 	public void run() {
 		while (true) {
-			synchronized (this) {
-				Set<Entry<String, Successor>> successorSet = waitingTasks
-						.entrySet();
-				for (Entry<String, Successor> e : successorSet) {
-					Successor s = e.getValue();
-					if (s.getStatus() == Successor.Status.READY) {
-						s.start();
-					}
-				}
+			try {
+				Successor s = readySuccessors.take();
+				s.start();
+			} catch (InterruptedException e) {
+				e.printStackTrace();
 			}
 		}
 	}
 
 	/**
+	 * Called by a {@link system.Successor.Closure Closure} once all of its
+	 * missing arguments have arrived
 	 * 
 	 * @param s
-	 *            Successor thread to be added to the queue
-	 */
-	public void addSuccessor(Successor s) {
-		synchronized (this) {
-			waitingTasks.put(s.getId(), s);
-		}
-
-	}
-
-	/**
-	 * 
-	 * @param successorId Successor thread to be removed from the queue
+	 *            Successor thread that is ready to be executed
 	 */
-	public void removeSuccessor(String successorId) {
-		synchronized (this) {
-			waitingTasks.remove(successorId);
-		}
-
-	}
-
-	/**
-	 * 
-	 * @param id ID of the successor thread whose Closure object is required
-	 * @return Gets the closure object corresponding to the Successor thread.
-	 */
-	public Successor.Closure getClosure(String id) {
-		synchronized (this) {
-			return waitingTasks.get(id).getClosure();
-		}
-
+	public void addReadySuccessor(Successor s) {
+		readySuccessors.add(s);
 	}
 }
@@ -0,0 +1,175 @@
+package system;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.FileHandler;
+import java.util.logging.Handler;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+import api.Task;
+import api.TaskId;
+
+/**
+ * Launches speculative copies of straggling tasks. A task still in flight on
+ * a {@link system.ComputerProxy ComputerProxy} is considered a straggler once
+ * it has been running for more than {@value #STRAGGLER_FACTOR} times the median
+ * runtime of the tasks of the same level of the same job, and at least
+ * {@value #MIN_STRAGGLER_MILLIS} ms. A copy of such a task is placed at the
+ * head of the queue of an idle proxy. Whichever copy completes first delivers
+ * its result; the result of the other copy is dropped by
+ * {@link system.JobContext#claimCompletion(long) claimCompletion}.
+ *
+ * Only tasks in the DECOMPOSE phase are speculated, since executing a COMPOSE
+ * task consumes the arguments of its {@link system.Successor Successor}.
+ *
+ * @author Manasa Chandrasekhar
+ * @author Kowshik Prakasam
+ */
+public class Speculator implements Runnable {
+
+	private static final long CHECK_INTERVAL_MILLIS = 500;
+	private static final int STRAGGLER_FACTOR = 4;
+	private static final long MIN_STRAGGLER_MILLIS = 1000;
+	private static final String LOG_FILE = "/cs/student/kowshik/speculator.log";
+	private SpaceImpl space;
+	private List<ComputerProxy> proxies;
+	private Thread t;
+	private Logger logger;
+
+	/**
+	 *
+	 * @param space
+	 *            Compute space whose jobs are watched for stragglers
+	 * @param proxies
+	 *            Proxies of the computers registered to the compute space
+	 */
+	public Speculator(SpaceImpl space, List<ComputerProxy> proxies) {
+		this.space = space;
+		this.proxies = proxies;
+		this.logger = Logger.getLogger("Speculator");
+		this.logger.setUseParentHandlers(false);
+		try {
+			Handler handler = new FileHandler(LOG_FILE);
+			handler.setFormatter(new SimpleFormatter());
+			logger.addHandler(handler);
+		} catch (SecurityException e) {
+			e.printStackTrace();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		t = new Thread(this, "Speculator");
+		t.setDaemon(true);
+	}
+
+	/**
+	 * Starts watching for stragglers
+	 */
+	public void start() {
+		t.start();
+	}
+
+	@Override
+	public void run() {
+		while (true) {
+			try {
+				Thread.sleep(CHECK_INTERVAL_MILLIS);
+			} catch (InterruptedException e) {
+				return;
+			}
+			List<ComputerProxy> currentProxies;
+			synchronized (proxies) {
+				currentProxies = new ArrayList<ComputerProxy>(proxies);
+			}
+			for (ComputerProxy aProxy : currentProxies) {
+				for (Map.Entry<Task<?>, Long> entry : aProxy.getInFlightTasks()
+						.entrySet()) {
+					checkStraggler(aProxy, entry.getKey(), entry.getValue(),
+							currentProxies);
+				}
+			}
+		}
+	}
+
+	// Launches a speculative copy of the task if it is a straggler and an
+	// idle proxy is available
+	private void checkStraggler(ComputerProxy owner, Task<?> aTask,
+			long startTime, List<ComputerProxy> currentProxies) {
+		if (aTask.getStatus() != Task.Status.DECOMPOSE) {
+			return;
+		}
+		JobContext job = space.getJob(aTask.getJobId());
+		if (job == null) {
+			return;
+		}
+		long median = job.getMedianRuntime(TaskId.getLevel(aTask.getId()));
+		long elapsed = System.currentTimeMillis() - startTime;
+		if (median < 0
+				|| elapsed < Math.max(STRAGGLER_FACTOR * median,
+						MIN_STRAGGLER_MILLIS)) {
+			return;
+		}
+		ComputerProxy idleProxy = null;
+		for (ComputerProxy aProxy : currentProxies) {
+			if (aProxy != owner && aProxy.isIdle()) {
+				idleProxy = aProxy;
+				break;
+			}
+		}
+		if (idleProxy == null || !job.startSpeculation(aTask.getId())) {
+			return;
+		}
+		// The original may have completed while the speculation was set up
+		if (!owner.isInFlight(aTask)) {
+			job.cancelSpeculation(aTask.getId());
+			return;
+		}
+		Task<?> copy = copyOf(aTask);
+		if (copy == null) {
+			job.cancelSpeculation(aTask.getId());
+			return;
+		}
+		logger.info("Speculating task " + TaskId.toString(aTask.getId())
+				+ " of job " + aTask.getJobId() + " after " + elapsed
+				+ " ms (median " + median + " ms)");
+		job.taskDispatched();
+		idleProxy.addSpeculativeTask(copy);
+	}
+
+	// Deep copy, so that both copies can be serialized independently
+	private Task<?> copyOf(Task<?> aTask) {
+		final ClassLoader loader = aTask.getClass().getClassLoader();
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			ObjectOutputStream out = new ObjectOutputStream(bytes);
+			out.writeObject(aTask);
+			out.close();
+			// Task classes may have been downloaded from the client's codebase
+			ObjectInputStream in = new ObjectInputStream(
+					new ByteArrayInputStream(bytes.toByteArray())) {
+				@Override
+				protected Class<?> resolveClass(ObjectStreamClass desc)
+						throws IOException, ClassNotFoundException {
+					try {
+						return Class.forName(desc.getName(), false, loader);
+					} catch (ClassNotFoundException e) {
+						return super.resolveClass(desc);
+					}
+				}
+			};
+			return (Task<?>) in.readObject();
+		} catch (IOException e) {
+			e.printStackTrace();
+		} catch (ClassNotFoundException e) {
+			e.printStackTrace();
+		}
+		return null;
+	}
+}
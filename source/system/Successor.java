@@ -1,10 +1,12 @@
 package system;
 
-import java.rmi.RemoteException;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Vector;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import api.Task;
+import api.TaskId;
 
 /**
  * 
@@ -22,9 +24,8 @@ import api.Task;
  */
 public class Successor implements Runnable {
 
-	private Thread t;
 	private Status threadStatus;
-	private String id;
+	private long id;
 	private SpaceImpl space;
 	private Task<?> task;
 	private Closure aClosure;
@@ -63,16 +64,15 @@ public class Successor implements Runnable {
 		this.space = spaceImpl;
 		this.task = aTask;
 		this.id = task.getId();
-		t = new Thread(this, aTask.getId());
-
 	}
 
 	/**
-	 * Starts the thread
+	 * Executes the successor on the calling thread. Invoked by the compute
+	 * space's dispatcher once the successor has moved into READY status.
 	 */
 	public void start() {
 		this.setStatus(Status.EXECUTING);
-		t.start();
+		run();
 	}
 
 	/**
@@ -80,11 +80,7 @@ public class Successor implements Runnable {
 	 */
 	@Override
 	public void run() {
-		try {
-			space.put(task);
-		} catch (RemoteException e) {
-			e.printStackTrace();
-		}
+		space.dispatch(task);
 	}
 
 	/**
@@ -110,7 +106,7 @@ public class Successor implements Runnable {
 	 * 
 	 * @return ID of the successor
 	 */
-	public String getId() {
+	public long getId() {
 		return this.id;
 	}
 
@@ -126,8 +122,8 @@ public class Successor implements Runnable {
 	 * 
 	 */
 	public class Closure {
-		private List<Object> values;
-		private int joinCounter;
+		private AtomicReferenceArray<Object> values;
+		private AtomicInteger joinCounter;
 
 		/**
 		 * 
@@ -135,30 +131,47 @@ public class Successor implements Runnable {
 		 *            Number of missing variables in the internal Closure object
 		 */
 		public Closure(int joinCounter) {
-			this.joinCounter = joinCounter;
-			this.values = new Vector<Object>();
+			this.joinCounter = new AtomicInteger(joinCounter);
+			this.values = new AtomicReferenceArray<Object>(joinCounter);
 		}
 
 		/**
-		 * Adds an argument to the Closure's list of values
+		 * Stores an argument in the slot reserved for the child task that
+		 * produced it. This method is thread-safe and lock-free. The thread
+		 * that fills the last missing slot hands the successor over to the
+		 * compute space for execution. A value for a slot that has already
+		 * been filled (for instance, by a re-executed task) is ignored.
 		 * 
+		 * @param childId
+		 *            ID of the child task that produced the value
 		 * @param value
+		 *            Value produced by the child task
+		 * @return True if the value filled a missing slot
 		 */
-		public void put(Object value) {
-
-			values.add(value);
-			joinCounter--;
-			if (this.joinCounter == 0) {
+		public boolean put(long childId, Object value) {
+			int slot = (int) (TaskId.getIndex(childId) - TaskId.getIndex(id)
+					* values.length());
+			if (!values.compareAndSet(slot, null, value)) {
+				return false;
+			}
+			if (joinCounter.decrementAndGet() == 0) {
 				setStatus(Status.READY);
+				space.addReadySuccessor(Successor.this);
 			}
+			return true;
 		}
 
 		/**
 		 * 
-		 * @return All values stored by the Closure
+		 * @return All values stored by the Closure, ordered by the position of
+		 *         the child tasks that produced them
 		 */
 		public final List<Object> getValues() {
-			return this.values;
+			List<Object> valueList = new ArrayList<Object>(values.length());
+			for (int slot = 0; slot < values.length(); slot++) {
+				valueList.add(values.get(slot));
+			}
+			return valueList;
 		}
 	}
 
@@ -0,0 +1,102 @@
+package system;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import api.Task;
+
+/**
+ * A batch of {@link api.Task Task} objects that are shipped to a remote
+ * {@link system.Computer Computer} in a single call. Each task in the batch is
+ * either in the Divide phase (DECOMPOSE status) or in the Conquer phase
+ * (COMPOSE status), in which case the batch also carries the values that need
+ * to be composed by the task.
+ * 
+ * @author Manasa Chandrasekhar
+ * @author Kowshik Prakasam
+ */
+public class TaskBatch implements Serializable {
+
+	private static final long serialVersionUID = 4427015944526416283L;
+	private List<Task<?>> tasks;
+	private List<List<?>> arguments;
+	private long id;
+
+	/**
+	 * Creates an empty batch
+	 */
+	public TaskBatch() {
+		this.tasks = new ArrayList<Task<?>>();
+		this.arguments = new ArrayList<List<?>>();
+	}
+
+	/**
+	 * 
+	 * @return ID under which the batch was leased to a computer that pulls
+	 *         tasks from the compute space
+	 */
+	public long getId() {
+		return this.id;
+	}
+
+	/**
+	 * 
+	 * @param id
+	 *            ID under which the batch is leased to a computer
+	 */
+	public void setId(long id) {
+		this.id = id;
+	}
+
+	/**
+	 * 
+	 * @param aTask
+	 *            Task to be decomposed on the remote computer
+	 */
+	public void add(Task<?> aTask) {
+		add(aTask, null);
+	}
+
+	/**
+	 * 
+	 * @param aTask
+	 *            Task to be executed on the remote computer
+	 * @param values
+	 *            Values to be composed by the task, if it is in the Conquer
+	 *            phase
+	 */
+	public void add(Task<?> aTask, List<?> values) {
+		this.tasks.add(aTask);
+		this.arguments.add(values);
+	}
+
+	/**
+	 * 
+	 * @return Number of tasks in this batch
+	 */
+	public int size() {
+		return this.tasks.size();
+	}
+
+	/**
+	 * 
+	 * @param index
+	 *            Position of the task in this batch
+	 * @return Task at the given position
+	 */
+	public Task<?> getTask(int index) {
+		return this.tasks.get(index);
+	}
+
+	/**
+	 * 
+	 * @param index
+	 *            Position of the task in this batch
+	 * @return Values to be composed by the task at the given position, or null
+	 *         if the task is in the Divide phase
+	 */
+	public List<?> getArguments(int index) {
+		return this.arguments.get(index);
+	}
+}
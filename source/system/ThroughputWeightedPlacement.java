@@ -0,0 +1,46 @@
+package system;
+
+import java.util.List;
+
+/**
+ * Places each task on the proxy expected to finish it first, by dividing the
+ * number of tasks it holds by the rate at which its computer has been
+ * completing tasks. Faster computers therefore receive proportionally more
+ * tasks. A computer that has not completed any batch yet is assumed to be as
+ * fast as the average of the others.
+ * 
+ * @author Manasa Chandrasekhar
+ * @author Kowshik Prakasam
+ */
+public class ThroughputWeightedPlacement implements PlacementPolicy {
+
+	@Override
+	public ComputerProxy select(List<ComputerProxy> proxies) {
+		double totalThroughput = 0;
+		int numOfMeasured = 0;
+		for (ComputerProxy aProxy : proxies) {
+			double throughput = aProxy.getThroughput();
+			if (throughput > 0) {
+				totalThroughput += throughput;
+				numOfMeasured++;
+			}
+		}
+		double defaultThroughput = numOfMeasured > 0 ? totalThroughput
+				/ numOfMeasured : 1;
+
+		ComputerProxy chosen = null;
+		double minCompletionTime = Double.MAX_VALUE;
+		for (ComputerProxy aProxy : proxies) {
+			double throughput = aProxy.getThroughput();
+			if (throughput <= 0) {
+				throughput = defaultThroughput;
+			}
+			double completionTime = (aProxy.getLoad() + 1) / throughput;
+			if (completionTime < minCompletionTime) {
+				chosen = aProxy;
+				minCompletionTime = completionTime;
+			}
+		}
+		return chosen;
+	}
+}
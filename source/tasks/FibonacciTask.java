@@ -1,5 +1,8 @@
 package tasks;
 
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.io.Serializable;
 import java.util.List;
 import java.util.Vector;
@@ -18,8 +21,15 @@ public class FibonacciTask extends TaskBase<Integer> implements Serializable {
 
 	private static final long serialVersionUID = -9046135328040176063L;
 	private static final int NUMBER_OF_CHILDREN = 2;
+	private static final int SEQUENTIAL_THRESHOLD = 10;
 	private int n;
 
+	/**
+	 * Used by deserialization only
+	 */
+	public FibonacciTask() {
+	}
+
 	/**
 	 * 
 	 * @param n
@@ -31,7 +41,7 @@ public class FibonacciTask extends TaskBase<Integer> implements Serializable {
 		this.n = n;
 	}
 
-	private FibonacciTask(int n, Task.Status s, String taskId, String parentId) {
+	private FibonacciTask(int n, Task.Status s, long taskId, long parentId) {
 		this(n);
 		init(s, taskId, parentId);
 	}
@@ -47,7 +57,7 @@ public class FibonacciTask extends TaskBase<Integer> implements Serializable {
 		}
 		List<Task<Integer>> subTasks = new Vector<Task<Integer>>();
 		int decrement = 1;
-		for (String id : this.getChildIds()) {
+		for (long id : this.getChildIds()) {
 			subTasks.add(new FibonacciTask(n - decrement,
 					Task.Status.DECOMPOSE, id, this.getId()));
 			decrement++;
@@ -77,4 +87,26 @@ public class FibonacciTask extends TaskBase<Integer> implements Serializable {
 		return FibonacciTask.NUMBER_OF_CHILDREN;
 	}
 
+	/**
+	 * Fibonacci numbers up to {@value #SEQUENTIAL_THRESHOLD} are computed
+	 * in-process by the computer that receives the task
+	 */
+	@Override
+	public boolean isSequential() {
+		return n <= SEQUENTIAL_THRESHOLD;
+	}
+
+	@Override
+	public void writeExternal(ObjectOutput out) throws IOException {
+		super.writeExternal(out);
+		out.writeInt(n);
+	}
+
+	@Override
+	public void readExternal(ObjectInput in) throws IOException,
+			ClassNotFoundException {
+		super.readExternal(in);
+		n = in.readInt();
+	}
+
 }
@@ -0,0 +1,36 @@
+package tasks;
+
+import tasks.MandelbrotSetTask.MandelbrotSetTaskResult;
+
+/**
+ * Fills a tile of the Mandelbrot Set with escape times. The pixel in column i
+ * and row j, counted from the bottom of the tile, represents the point whose
+ * coordinates are the i-th X-coordinate and the j-th Y-coordinate given to the
+ * kernel. The coordinates are computed once per tile by
+ * {@link tasks.MandelbrotSetTask#getCoordinates(double, long, int, double)
+ * MandelbrotSetTask.getCoordinates}, so that a pixel has the same coordinates
+ * whichever tile it belongs to.
+ *
+ * @author Manasa Chandrasekhar
+ * @author Kowshik Prakasam
+ */
+public interface MandelbrotKernel {
+
+	/**
+	 *
+	 * @param tile
+	 *            Tile to be filled, whose width and height give the number of
+	 *            pixels along each axis
+	 * @param xValues
+	 *            X-coordinate of every column of the tile in the complex plane
+	 * @param yValues
+	 *            Y-coordinate of every row of the tile in the complex plane,
+	 *            from the bottom row up
+	 * @param jump
+	 *            Distance between neighbouring pixels in the complex plane
+	 * @param iterLimit
+	 *            Maximum number of iterations
+	 */
+	void computeTile(MandelbrotSetTaskResult tile, double[] xValues,
+			double[] yValues, double jump, int iterLimit);
+}
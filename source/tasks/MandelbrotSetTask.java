@@ -1,11 +1,20 @@
 package tasks;
 
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Vector;
+import java.util.logging.Logger;
 
 import system.ResultImpl;
+import api.Cacheable;
 import api.Result;
+import api.Streamable;
 import api.Task;
 
 /**
@@ -18,26 +27,63 @@ import api.Task;
 
 public class MandelbrotSetTask extends
 		TaskBase<MandelbrotSetTask.MandelbrotSetTaskResult> implements
-		Serializable {
+		Serializable, Cacheable<MandelbrotSetTask.MandelbrotSetTaskResult>,
+		Streamable<MandelbrotSetTask.MandelbrotSetTaskResult> {
 
 	/**
-	 * Represents the result of Mandelbrot Set computation
+	 * Represents the result of Mandelbrot Set computation : a rectangular tile
+	 * of iteration counts, whose top left pixel is located at (x, y) in the
+	 * whole image. The counts are kept in a single flat array, whose elements
+	 * are shorts whenever the iteration limit fits in a short, and ints
+	 * otherwise. Pixels are stored row by row from the top of the tile, in the
+	 * orientation of the final image, so that tiles are composed by copying
+	 * whole rows.
 	 * 
 	 * @author Manasa Chandrasekhar
 	 * @author Kowshik Prakasam
 	 * 
 	 */
-	public class MandelbrotSetTaskResult implements Serializable {
+	public static class MandelbrotSetTaskResult implements Externalizable {
 
 		private static final long serialVersionUID = -6076247513686818330L;
 		int x;
 		int y;
-		int[][] values;
+		int width;
+		int height;
+		short[] shortValues;
+		int[] intValues;
+
+		/**
+		 * Used by deserialization only
+		 */
+		public MandelbrotSetTaskResult() {
+		}
 
-		public MandelbrotSetTaskResult(int x, int y, int[][] values) {
+		/**
+		 * Allocates a tile whose counts are all zero
+		 * 
+		 * @param x
+		 *            Column of the tile's top left pixel in the whole image
+		 * @param y
+		 *            Row of the tile's top left pixel in the whole image
+		 * @param width
+		 *            Number of pixels along the X-axis
+		 * @param height
+		 *            Number of pixels along the Y-axis
+		 * @param iterLimit
+		 *            Largest count to be stored in the tile
+		 */
+		public MandelbrotSetTaskResult(int x, int y, int width, int height,
+				int iterLimit) {
 			this.x = x;
 			this.y = y;
-			this.values = values;
+			this.width = width;
+			this.height = height;
+			if (iterLimit <= Short.MAX_VALUE) {
+				this.shortValues = new short[width * height];
+			} else {
+				this.intValues = new int[width * height];
+			}
 		}
 
 		public int getX() {
@@ -56,29 +102,178 @@ public class MandelbrotSetTask extends
 			this.y = y;
 		}
 
-		public int[][] getValues() {
-			return values;
+		public int getWidth() {
+			return width;
+		}
+
+		public int getHeight() {
+			return height;
+		}
+
+		/**
+		 * 
+		 * @param i
+		 *            Column of the pixel within the tile
+		 * @param j
+		 *            Row of the pixel within the tile, counted from the top
+		 * @return Iteration count of the pixel
+		 */
+		public int getValue(int i, int j) {
+			int index = j * width + i;
+			return shortValues != null ? shortValues[index] : intValues[index];
+		}
+
+		/**
+		 * 
+		 * @param i
+		 *            Column of the pixel within the tile
+		 * @param j
+		 *            Row of the pixel within the tile, counted from the top
+		 * @param value
+		 *            Iteration count of the pixel
+		 */
+		public void setValue(int i, int j, int value) {
+			int index = j * width + i;
+			if (shortValues != null) {
+				shortValues[index] = (short) value;
+			} else {
+				intValues[index] = value;
+			}
+		}
+
+		/**
+		 * 
+		 * @param x
+		 *            Column of the top left pixel in the whole image
+		 * @param y
+		 *            Row of the top left pixel in the whole image
+		 * @return Tile located at (x, y), that shares the counts of this tile
+		 */
+		public MandelbrotSetTaskResult moveTo(int x, int y) {
+			MandelbrotSetTaskResult tile = new MandelbrotSetTaskResult();
+			tile.x = x;
+			tile.y = y;
+			tile.width = width;
+			tile.height = height;
+			tile.shortValues = shortValues;
+			tile.intValues = intValues;
+			return tile;
 		}
 
-		public void setValues(int[][] values) {
-			this.values = values;
+		/**
+		 * Copies this tile into the region it covers in a larger tile, one row
+		 * at a time
+		 * 
+		 * @param target
+		 *            Tile that contains this tile, with the same element type
+		 */
+		public void copyInto(MandelbrotSetTaskResult target) {
+			int targetIndex = (y - target.y) * target.width + (x - target.x);
+			for (int row = 0; row < height; row++) {
+				if (shortValues != null) {
+					System.arraycopy(shortValues, row * width,
+							target.shortValues, targetIndex, width);
+				} else {
+					System.arraycopy(intValues, row * width, target.intValues,
+							targetIndex, width);
+				}
+				targetIndex += target.width;
+			}
+		}
+
+		@Override
+		public void writeExternal(ObjectOutput out) throws IOException {
+			out.writeInt(x);
+			out.writeInt(y);
+			out.writeInt(width);
+			out.writeInt(height);
+			out.writeBoolean(shortValues != null);
+			// The counts are copied in bulk rather than written one by one
+			if (shortValues != null) {
+				ByteBuffer bytes = ByteBuffer.allocate(shortValues.length * 2);
+				bytes.asShortBuffer().put(shortValues);
+				out.write(bytes.array());
+			} else {
+				ByteBuffer bytes = ByteBuffer.allocate(intValues.length * 4);
+				bytes.asIntBuffer().put(intValues);
+				out.write(bytes.array());
+			}
+		}
+
+		@Override
+		public void readExternal(ObjectInput in) throws IOException,
+				ClassNotFoundException {
+			x = in.readInt();
+			y = in.readInt();
+			width = in.readInt();
+			height = in.readInt();
+			if (in.readBoolean()) {
+				shortValues = new short[width * height];
+				byte[] bytes = new byte[shortValues.length * 2];
+				in.readFully(bytes);
+				ByteBuffer.wrap(bytes).asShortBuffer().get(shortValues);
+			} else {
+				intValues = new int[width * height];
+				byte[] bytes = new byte[intValues.length * 4];
+				in.readFully(bytes);
+				ByteBuffer.wrap(bytes).asIntBuffer().get(intValues);
+			}
 		}
 	}
 
 	private static final long serialVersionUID = -2438392380951095822L;
-	private static final int NUM_OF_CHILDREN = 16;
+	/*
+	 * Every decomposition cuts a tile into 2 X 2 subtiles
+	 */
+	private static final int NUM_OF_CHILDREN = 4;
+	/*
+	 * Number of leaves of the default decomposition
+	 */
+	private static final int DEFAULT_NUM_OF_TILES = 16;
 	private static final int MANDELBROT_LIMIT = 2;
-	private double lowerX;
-	private double lowerY;
-	private double edgeLength;
-	private int n;
+	/*
+	 * Largest squared modulus whose correctly rounded square root is at most
+	 * MANDELBROT_LIMIT, so that comparing squared moduli against it gives
+	 * exactly the same answers as comparing square roots against the limit
+	 */
+	static final double MANDELBROT_LIMIT_SQUARED = Math
+			.nextUp((double) MANDELBROT_LIMIT * MANDELBROT_LIMIT);
+	static final int FIRST_CYCLE_CHECK = 8;
+	/*
+	 * Name of the system property that selects the kernel : "scalar" always
+	 * computes one pixel at a time, anything else uses the vector kernel when
+	 * the jdk.incubator.vector module is present
+	 */
+	private static final String KERNEL_PROPERTY = "mandelbrot.kernel";
+	private static final MandelbrotKernel BORDER_TRACING_KERNEL = new MarianiSilverKernel();
+	private double jump;
+	/*
+	 * Lower left pixel of the tile on the grid of pixels of size jump whose
+	 * origin is the origin of the complex plane : the pixel (gridX + i, gridY
+	 * + j) is at ((gridX + i) * jump, (gridY + j) * jump), whichever tile or
+	 * view it belongs to
+	 */
+	private long gridX;
+	private long gridY;
+	private int width;
+	private int height;
 
 	private int iterLimit;
-	private int taskSize;
+	private int maxTileSize;
 	private int chunkLocationX;
 	private int chunkLocationY;
+	private boolean borderTracing;
+	private boolean composing;
 
 	/**
+	 * Used by deserialization only
+	 */
+	public MandelbrotSetTask() {
+	}
+
+	/**
+	 * Creates a task that is decomposed into {@value #DEFAULT_NUM_OF_TILES}
+	 * tiles
 	 * 
 	 * @param lowerX
 	 *            X-coordinate of the lower left corner of a square in the
@@ -98,34 +293,158 @@ public class MandelbrotSetTask extends
 	 */
 	public MandelbrotSetTask(double lowerX, double lowerY, double edgeLength,
 			int n, int iterLimit) {
-		super(DEFAULT_TASK_ID, DEFAULT_TASK_ID, Task.Status.DECOMPOSE, System
-				.currentTimeMillis());
-		this.lowerX = lowerX;
-		this.lowerY = lowerY;
-		this.edgeLength = edgeLength;
-		this.n = n;
-		this.iterLimit = iterLimit;
-		this.taskSize = new Double(Math.sqrt(n * n / NUM_OF_CHILDREN))
-				.intValue();
+		this(lowerX, lowerY, edgeLength, n, iterLimit, false);
+	}
+
+	/**
+	 * Creates a task that is decomposed into {@value #DEFAULT_NUM_OF_TILES}
+	 * tiles
+	 * 
+	 * @param lowerX
+	 *            X-coordinate of the lower left corner of a square in the
+	 *            complex plane
+	 * @param lowerY
+	 *            Y-coordinate of the lower left corner of a square in the
+	 *            complex plane
+	 * @param edgeLength
+	 *            Edge length of the square in the complex plane, whose sides
+	 *            are parallel to the axes
+	 * @param n
+	 *            Square region of the complex plane subdivided into n X n
+	 *            squares, each of which is visualized by 1 pixel
+	 * @param iterLimit
+	 *            Defines when the representative point of a region is
+	 *            considered to be in the Mandelbrot set.
+	 * @param borderTracing
+	 *            Whether tiles are computed by the
+	 *            {@link tasks.MarianiSilverKernel MarianiSilverKernel}, which
+	 *            skips the interior of regions with a uniform border at the
+	 *            cost of possibly missing thin filaments
+	 */
+	public MandelbrotSetTask(double lowerX, double lowerY, double edgeLength,
+			int n, int iterLimit, boolean borderTracing) {
+		this(lowerX, lowerY, edgeLength, n, iterLimit, getTileSize(n,
+				DEFAULT_NUM_OF_TILES), borderTracing);
+	}
+
+	/**
+	 * 
+	 * @param lowerX
+	 *            X-coordinate of the lower left corner of a square in the
+	 *            complex plane
+	 * @param lowerY
+	 *            Y-coordinate of the lower left corner of a square in the
+	 *            complex plane
+	 * @param edgeLength
+	 *            Edge length of the square in the complex plane, whose sides
+	 *            are parallel to the axes
+	 * @param n
+	 *            Square region of the complex plane subdivided into n X n
+	 *            squares, each of which is visualized by 1 pixel
+	 * @param iterLimit
+	 *            Defines when the representative point of a region is
+	 *            considered to be in the Mandelbrot set.
+	 * @param maxTileSize
+	 *            Tiles are recursively cut into 2 X 2 subtiles until neither
+	 *            of their sides is longer than maxTileSize pixels, and at least
+	 *            2
+	 * @param borderTracing
+	 *            Whether tiles are computed by the
+	 *            {@link tasks.MarianiSilverKernel MarianiSilverKernel}, which
+	 *            skips the interior of regions with a uniform border at the
+	 *            cost of possibly missing thin filaments
+	 */
+	public MandelbrotSetTask(double lowerX, double lowerY, double edgeLength,
+			int n, int iterLimit, int maxTileSize, boolean borderTracing) {
+		this(lowerX, lowerY, edgeLength, n, iterLimit, maxTileSize,
+				borderTracing, true);
+	}
 
+	/**
+	 * 
+	 * @param lowerX
+	 *            X-coordinate of the lower left corner of a square in the
+	 *            complex plane, rounded to the nearest multiple of the pixel
+	 *            size so that views panning over each other share their tiles
+	 * @param lowerY
+	 *            Y-coordinate of the lower left corner of a square in the
+	 *            complex plane, rounded likewise
+	 * @param edgeLength
+	 *            Edge length of the square in the complex plane, whose sides
+	 *            are parallel to the axes
+	 * @param n
+	 *            Square region of the complex plane subdivided into n X n
+	 *            squares, each of which is visualized by 1 pixel
+	 * @param iterLimit
+	 *            Defines when the representative point of a region is
+	 *            considered to be in the Mandelbrot set.
+	 * @param maxTileSize
+	 *            Tiles are recursively cut into 2 X 2 subtiles until neither
+	 *            of their sides is longer than maxTileSize pixels, and at least
+	 *            2
+	 * @param borderTracing
+	 *            Whether tiles are computed by the
+	 *            {@link tasks.MarianiSilverKernel MarianiSilverKernel}, which
+	 *            skips the interior of regions with a uniform border at the
+	 *            cost of possibly missing thin filaments
+	 * @param composing
+	 *            If false, subtiles are not composed into larger tiles, and
+	 *            the result of the task is an empty tile : the image is only
+	 *            available as the stream of tiles of a streaming job, which
+	 *            keeps images larger than the heap out of the compute space
+	 */
+	public MandelbrotSetTask(double lowerX, double lowerY, double edgeLength,
+			int n, int iterLimit, int maxTileSize, boolean borderTracing,
+			boolean composing) {
+		this(edgeLength / n, Math.round(lowerX / (edgeLength / n)), Math
+				.round(lowerY / (edgeLength / n)), n, n, iterLimit,
+				maxTileSize, borderTracing, composing, 0, 0);
 	}
 
-	private MandelbrotSetTask(double lowerX, double lowerY, double edgeLength,
-			int n, int iterLimit, int chunkLocationX, int chunkLocationY,
-			Task.Status s, String taskId, String parentId) {
-		this(lowerX, lowerY, edgeLength, n, iterLimit);
+	private MandelbrotSetTask(double jump, long gridX, long gridY, int width,
+			int height, int iterLimit, int maxTileSize, boolean borderTracing,
+			boolean composing, int chunkLocationX, int chunkLocationY) {
+		super(DEFAULT_TASK_ID, DEFAULT_TASK_ID, Task.Status.DECOMPOSE, System
+				.currentTimeMillis());
+		this.jump = jump;
+		this.gridX = gridX;
+		this.gridY = gridY;
+		this.width = width;
+		this.height = height;
+		this.iterLimit = iterLimit;
+		this.maxTileSize = Math.max(2, maxTileSize);
+		this.borderTracing = borderTracing;
+		this.composing = composing;
 		this.chunkLocationX = chunkLocationX;
 		this.chunkLocationY = chunkLocationY;
-		super.init(s, taskId, parentId);
 	}
 
-	
+	/**
+	 * 
+	 * @param n
+	 *            Number of pixels along each side of the image
+	 * @param numOfTiles
+	 *            Smallest number of tiles the image should be decomposed into,
+	 *            for instance a few times the number of computers
+	 * @return Largest tile size for which the recursive 2 X 2 decomposition of
+	 *         the image yields at least numOfTiles tiles
+	 */
+	public static int getTileSize(int n, int numOfTiles) {
+		int tilesPerSide = 1;
+		while (tilesPerSide * tilesPerSide < numOfTiles && tilesPerSide < n) {
+			tilesPerSide *= 2;
+		}
+		return (n + tilesPerSide - 1) / tilesPerSide;
+	}
+
 	@Override
 	/**
-	 * Implements the decompose phase of Mandelbrot Set computation
+	 * Implements the decompose phase of Mandelbrot Set computation : tiles
+	 * larger than the maximum tile size are cut into subtiles, the others are
+	 * computed
 	 */
 	public Result<MandelbrotSetTaskResult> decompose() {
-		if (this.getId().equals(DEFAULT_TASK_ID)) {
+		if (!this.isLeaf()) {
 			List<Task<MandelbrotSetTaskResult>> subTasks = this
 					.chopMandelbrotTask();
 			return new ResultImpl<MandelbrotSetTaskResult>(this.getStartTime(),
@@ -138,60 +457,78 @@ public class MandelbrotSetTask extends
 
 	}
 
+	// Tiles that are computed rather than decomposed
+	private boolean isLeaf() {
+		return this.width <= this.maxTileSize
+				&& this.height <= this.maxTileSize;
+	}
+
 	//Core mandelbrot set computation
 	private MandelbrotSetTaskResult computeMandelbrotSet() {
-		int[][] values = new int[n][n];
-		int i = 0, j = 0;
-		for (double xIndex = this.lowerX; i < n; xIndex += edgeLength, i++) {
-			j = 0;
-
-			for (double yIndex = this.lowerY; j < n; yIndex += edgeLength, j++) {
-				double zLowerReal = xIndex;
-				double zLowerComplex = yIndex;
-				double zReal = zLowerReal;
-				double zComplex = zLowerComplex;
-
-				int k;
-				for (k = 0; k < this.iterLimit
-						&& (modulus(zReal, zComplex) <= MandelbrotSetTask.MANDELBROT_LIMIT); k++) {
-					double zPrevReal = zReal;
-					zReal = zReal * zReal - zComplex * zComplex + zLowerReal;
-					zComplex = 2 * zPrevReal * zComplex + zLowerComplex;
-				}
-
-				if (modulus(zReal, zComplex) <= MandelbrotSetTask.MANDELBROT_LIMIT) {
+		MandelbrotSetTaskResult tile = new MandelbrotSetTaskResult(
+				this.chunkLocationX, this.chunkLocationY, this.width,
+				this.height, this.iterLimit);
+		MandelbrotKernel kernel = this.borderTracing ? BORDER_TRACING_KERNEL
+				: getKernel();
+		kernel.computeTile(tile, getCoordinates(0, this.gridX, this.width,
+				this.jump), getCoordinates(0, this.gridY, this.height,
+				this.jump), this.jump, this.iterLimit);
+		return tile;
 
-					values[i][j] = this.iterLimit;
-				} else {
+	}
 
-					values[i][j] = k;
-				}
-			}
+	/**
+	 * Coordinates of a line of pixels along one axis of the complex plane.
+	 * Each coordinate is computed from its own pixel index rather than
+	 * accumulated from its neighbour, so that the pixels of an image have the
+	 * same coordinates however the image is cut into tiles.
+	 * 
+	 * @param origin
+	 *            Coordinate of the pixel with index 0
+	 * @param firstPixel
+	 *            Index of the first pixel of the line
+	 * @param numOfPixels
+	 *            Number of pixels in the line
+	 * @param jump
+	 *            Distance between neighbouring pixels
+	 * @return Coordinate of every pixel of the line
+	 */
+	public static double[] getCoordinates(double origin, long firstPixel,
+			int numOfPixels, double jump) {
+		double[] coordinates = new double[numOfPixels];
+		for (int k = 0; k < numOfPixels; k++) {
+			coordinates[k] = origin + (firstPixel + k) * jump;
 		}
-
-		return new MandelbrotSetTaskResult(this.chunkLocationX,
-				this.chunkLocationY, values);
-
+		return coordinates;
 	}
 
 	
 	/**
-	 * Subdivides a mandelbrot set task
+	 * Cuts a mandelbrot set task into 2 X 2 subtasks, whose sides differ by
+	 * at most one pixel. Each subtask is told the position of its top left
+	 * pixel in the whole image : the imaginary axis grows upwards, while image
+	 * rows are counted from the top. Subtasks are placed on the same grid of
+	 * pixels as their parent.
 	 */
 	private List<Task<MandelbrotSetTaskResult>> chopMandelbrotTask() {
-		int i = 0, j = 0;
-		double jump = edgeLength / n;
-		List<String> childIds = this.getChildIds();
+		int[] columns = { 0, this.width / 2, this.width };
+		int[] rows = { 0, this.height / 2, this.height };
+		long[] childIds = this.getChildIds();
 		int childIdIndex = 0;
 		List<Task<MandelbrotSetTaskResult>> subTasks = new Vector<Task<MandelbrotSetTaskResult>>();
-		for (double xIndex = this.lowerX; i < n; xIndex += jump * this.taskSize, i += this.taskSize) {
-			j = 0;
-			for (double yIndex = this.lowerY; j < n; yIndex += jump
-					* this.taskSize, j += this.taskSize) {
-				Task<MandelbrotSetTaskResult> aMandelbrotSetTask = new MandelbrotSetTask(
-						xIndex, yIndex, jump, this.taskSize, iterLimit, i, j,
-						Task.Status.DECOMPOSE, childIds.get(childIdIndex),
-						this.getId());
+		for (int i = 0; i < 2; i++) {
+			int childWidth = columns[i + 1] - columns[i];
+			for (int j = 0; j < 2; j++) {
+				int childHeight = rows[j + 1] - rows[j];
+				MandelbrotSetTask aMandelbrotSetTask = new MandelbrotSetTask(
+						this.jump, this.gridX + columns[i], this.gridY
+								+ rows[j], childWidth, childHeight,
+						this.iterLimit, this.maxTileSize, this.borderTracing,
+						this.composing, this.chunkLocationX + columns[i],
+						this.chunkLocationY + this.height - rows[j]
+								- childHeight);
+				aMandelbrotSetTask.init(Task.Status.DECOMPOSE,
+						childIds[childIdIndex], this.getId());
 				subTasks.add(aMandelbrotSetTask);
 				childIdIndex++;
 			}
@@ -204,25 +541,20 @@ public class MandelbrotSetTask extends
 	 * Implements the compose phase of Mandelbrot Set computation
 	 */
 	public Result<MandelbrotSetTaskResult> compose(List<?> list) {
+		if (!this.composing) {
+			return new ResultImpl<MandelbrotSetTaskResult>(this.getStartTime(),
+					System.currentTimeMillis(), this.getPlaceholder());
+		}
 		List<MandelbrotSetTaskResult> listOfChunks = (List<MandelbrotSetTaskResult>) list;
-		int[][] allValues = new int[this.n][this.n];
+		// Every chunk is written straight into the single output tile
+		MandelbrotSetTaskResult finalResult = new MandelbrotSetTaskResult(
+				this.chunkLocationX, this.chunkLocationY, this.width,
+				this.height, this.iterLimit);
 
 		for (MandelbrotSetTaskResult chunk : listOfChunks) {
-			int[][] values = chunk.getValues();
-			int startX = chunk.getX();
-			int startY = chunk.getY();
-			for (int valuesRow = 0; valuesRow < values.length; valuesRow++) {
-				for (int valuesCol = 0; valuesCol < values[0].length; valuesCol++) {
-					int actualX = new Double(valuesRow + startX).intValue();
-					int actualY = new Double(n - 1 - (valuesCol + startY))
-							.intValue();
-					allValues[actualX][actualY] = values[valuesRow][valuesCol];
-				}
-			}
+			chunk.copyInto(finalResult);
 		}
 
-		MandelbrotSetTaskResult finalResult = new MandelbrotSetTaskResult(
-				this.chunkLocationX, this.chunkLocationY, allValues);
 		return new ResultImpl<MandelbrotSetTaskResult>(this.getStartTime(),
 				System.currentTimeMillis(), finalResult);
 
@@ -237,9 +569,197 @@ public class MandelbrotSetTask extends
 		return NUM_OF_CHILDREN;
 	}
 
-	//Modulus of a complex number
-	private double modulus(double zReal, double zComplex) {
-		return Math.sqrt(zReal * zReal + zComplex * zComplex);
+	/**
+	 * Tiles are identified by their position on the grid of pixels and by
+	 * every parameter that affects their counts, but not by their location in
+	 * the image, so that later jobs panning over the same region reuse them.
+	 * The maximum tile size only matters to tiles that are decomposed. The
+	 * empty tiles of tasks that do not compose are not cached.
+	 */
+	@Override
+	public Object getCacheKey() {
+		if (this.isLeaf()) {
+			return Arrays.asList(this.jump, this.gridX, this.gridY,
+					this.width, this.height, this.iterLimit,
+					this.borderTracing);
+		}
+		if (!this.composing) {
+			return null;
+		}
+		return Arrays.asList(this.jump, this.gridX, this.gridY, this.width,
+				this.height, this.iterLimit, this.borderTracing,
+				this.maxTileSize);
+	}
+
+	/**
+	 * Tiles that are not composed are replaced by an empty tile once
+	 * streamed, so that their counts do not travel to the compose of their
+	 * parent
+	 */
+	@Override
+	public MandelbrotSetTaskResult getPlaceholder() {
+		if (this.composing) {
+			return null;
+		}
+		return new MandelbrotSetTaskResult(this.chunkLocationX,
+				this.chunkLocationY, 0, 0, this.iterLimit);
+	}
+
+	@Override
+	public long getCacheWeight() {
+		long bytesPerValue = this.iterLimit <= Short.MAX_VALUE ? 2 : 4;
+		return bytesPerValue * this.width * this.height;
+	}
+
+	@Override
+	public MandelbrotSetTaskResult fromCache(MandelbrotSetTaskResult cachedValue) {
+		return cachedValue.moveTo(this.chunkLocationX, this.chunkLocationY);
+	}
+
+	@Override
+	public void writeExternal(ObjectOutput out) throws IOException {
+		super.writeExternal(out);
+		out.writeDouble(jump);
+		out.writeLong(gridX);
+		out.writeLong(gridY);
+		out.writeInt(width);
+		out.writeInt(height);
+		out.writeInt(iterLimit);
+		out.writeInt(maxTileSize);
+		out.writeInt(chunkLocationX);
+		out.writeInt(chunkLocationY);
+		out.writeBoolean(borderTracing);
+		out.writeBoolean(composing);
+	}
+
+	@Override
+	public void readExternal(ObjectInput in) throws IOException,
+			ClassNotFoundException {
+		super.readExternal(in);
+		jump = in.readDouble();
+		gridX = in.readLong();
+		gridY = in.readLong();
+		width = in.readInt();
+		height = in.readInt();
+		iterLimit = in.readInt();
+		maxTileSize = in.readInt();
+		chunkLocationX = in.readInt();
+		chunkLocationY = in.readInt();
+		borderTracing = in.readBoolean();
+		composing = in.readBoolean();
+	}
+
+	/**
+	 * 
+	 * @return Kernel used to compute the tiles of this JVM : the
+	 *         {@link tasks.VectorMandelbrotKernel VectorMandelbrotKernel} if
+	 *         the jdk.incubator.vector module was added to the JVM, the
+	 *         {@link tasks.ScalarMandelbrotKernel ScalarMandelbrotKernel}
+	 *         otherwise
+	 */
+	public static MandelbrotKernel getKernel() {
+		return KernelHolder.KERNEL;
+	}
+
+	/*
+	 * Loads the kernel when the first tile is computed, so that JVMs which
+	 * only pass tasks around, such as the compute space, never choose one
+	 */
+	private static class KernelHolder {
+		private static final MandelbrotKernel KERNEL = loadKernel();
+	}
+
+	/*
+	 * The vector kernel is loaded by name, so that the rest of the task never
+	 * links against the incubator module
+	 */
+	private static MandelbrotKernel loadKernel() {
+		Logger logger = Logger.getLogger("MandelbrotSetTask");
+		if ("scalar".equals(System.getProperty(KERNEL_PROPERTY))) {
+			logger.info("Using the scalar kernel, as requested by "
+					+ KERNEL_PROPERTY);
+			return new ScalarMandelbrotKernel();
+		}
+		try {
+			MandelbrotKernel kernel = (MandelbrotKernel) Class.forName(
+					"tasks.VectorMandelbrotKernel").getDeclaredConstructor()
+					.newInstance();
+			logger.info("Using the vector kernel");
+			return kernel;
+		} catch (Exception e) {
+			logger.warning("Using the scalar kernel, the vector kernel failed to load : "
+					+ describe(e));
+		} catch (LinkageError e) {
+			logger.warning("Using the scalar kernel, the vector kernel failed to load"
+					+ " (is --add-modules jdk.incubator.vector missing?) : "
+					+ describe(e));
+		}
+		return new ScalarMandelbrotKernel();
+	}
+
+	// The constructor of the vector kernel throws when the CPU is too narrow
+	private static String describe(Throwable t) {
+		Throwable cause = t.getCause() != null ? t.getCause() : t;
+		return cause.toString();
+	}
+
+	/**
+	 * Escape time algorithm for a single point of the complex plane. Points in
+	 * the main cardioid and the period-2 bulb are known to be in the
+	 * Mandelbrot set and are rejected without iterating. The orbits of other
+	 * points are compared with a periodically refreshed snapshot : an orbit
+	 * that returns exactly to an earlier value is periodic and never escapes.
+	 * 
+	 * @param cReal
+	 *            Real part of the point
+	 * @param cImaginary
+	 *            Imaginary part of the point
+	 * @param iterLimit
+	 *            Maximum number of iterations
+	 * @return Number of iterations after which the orbit left the circle of
+	 *         radius {@value #MANDELBROT_LIMIT}, or iterLimit if it never did
+	 */
+	public static int escapeTime(double cReal, double cImaginary, int iterLimit) {
+		if (isInCardioidOrBulb(cReal, cImaginary)) {
+			return iterLimit;
+		}
+		double zReal = cReal;
+		double zComplex = cImaginary;
+		double savedReal = zReal;
+		double savedComplex = zComplex;
+		int cycleCheck = FIRST_CYCLE_CHECK;
+		int sinceSaved = 0;
+		for (int k = 0; k < iterLimit; k++) {
+			double zRealSquared = zReal * zReal;
+			double zComplexSquared = zComplex * zComplex;
+			if (zRealSquared + zComplexSquared > MANDELBROT_LIMIT_SQUARED) {
+				return k;
+			}
+			zComplex = 2 * zReal * zComplex + cImaginary;
+			zReal = zRealSquared - zComplexSquared + cReal;
+			if (zReal == savedReal && zComplex == savedComplex) {
+				return iterLimit;
+			}
+			if (++sinceSaved == cycleCheck) {
+				savedReal = zReal;
+				savedComplex = zComplex;
+				sinceSaved = 0;
+				cycleCheck *= 2;
+			}
+		}
+		return iterLimit;
+	}
+
+	// Closed form tests for the two largest components of the set
+	private static boolean isInCardioidOrBulb(double cReal, double cImaginary) {
+		double imaginarySquared = cImaginary * cImaginary;
+		double shiftedReal = cReal - 0.25;
+		double q = shiftedReal * shiftedReal + imaginarySquared;
+		if (q * (q + shiftedReal) < 0.25 * imaginarySquared) {
+			return true;
+		}
+		double bulbReal = cReal + 1;
+		return bulbReal * bulbReal + imaginarySquared < 0.0625;
 	}
 
 }
@@ -0,0 +1,138 @@
+package tasks;
+
+import tasks.MandelbrotSetTask.MandelbrotSetTaskResult;
+
+/**
+ * Fills a tile with the Mariani-Silver algorithm : the escape times of the
+ * border of a rectangle are computed first, and if they are all equal, the
+ * interior of the rectangle is filled with the same count without iterating.
+ * Otherwise the rectangle is cut in two along its longer side, the escape
+ * times of the cut are computed, and both halves are processed in the same
+ * way. Rectangles that are too small to be worth cutting are computed pixel by
+ * pixel.
+ *
+ * Since the Mandelbrot Set is connected, a rectangle whose border lies in the
+ * set is entirely in the set, which makes the algorithm very effective on
+ * views dominated by the interior of the set. Thin filaments that cross a
+ * rectangle without touching its border at any pixel are however missed, so
+ * counts can differ from those of the other kernels.
+ *
+ * @author Manasa Chandrasekhar
+ * @author Kowshik Prakasam
+ */
+public class MarianiSilverKernel implements MandelbrotKernel {
+
+	/*
+	 * Rectangles with fewer pixels along one side are computed pixel by pixel
+	 */
+	private static final int MIN_SIDE = 8;
+
+	@Override
+	public void computeTile(MandelbrotSetTaskResult tile, double[] xValues,
+			double[] yValues, double jump, int iterLimit) {
+		int width = tile.getWidth();
+		int height = tile.getHeight();
+		Rectangles rectangles = new Rectangles(tile, xValues, yValues,
+				iterLimit);
+		rectangles.computeRow(0, 0, width - 1);
+		rectangles.computeRow(height - 1, 0, width - 1);
+		rectangles.computeColumn(0, 1, height - 2);
+		rectangles.computeColumn(width - 1, 1, height - 2);
+		rectangles.subdivide(0, 0, width - 1, height - 1);
+	}
+
+	/**
+	 * Subdivision of a single tile, so that the kernel can be shared by
+	 * concurrent tasks
+	 */
+	private static class Rectangles {
+		private MandelbrotSetTaskResult tile;
+		private double[] xValues;
+		private double[] yValues;
+		private int iterLimit;
+
+		Rectangles(MandelbrotSetTaskResult tile, double[] xValues,
+				double[] yValues, int iterLimit) {
+			this.tile = tile;
+			this.xValues = xValues;
+			this.yValues = yValues;
+			this.iterLimit = iterLimit;
+		}
+
+		/*
+		 * Processes the rectangle between the given columns and rows,
+		 * inclusive, whose border has already been computed
+		 */
+		private void subdivide(int left, int bottom, int right, int top) {
+			if (right - left < 2 || top - bottom < 2) {
+				return;
+			}
+			int borderValue = getUniformBorderValue(left, bottom, right, top);
+			if (borderValue >= 0) {
+				for (int i = left + 1; i < right; i++) {
+					for (int j = bottom + 1; j < top; j++) {
+						setValue(i, j, borderValue);
+					}
+				}
+			} else if (right - left + 1 < MIN_SIDE
+					|| top - bottom + 1 < MIN_SIDE) {
+				for (int i = left + 1; i < right; i++) {
+					computeColumn(i, bottom + 1, top - 1);
+				}
+			} else if (right - left >= top - bottom) {
+				int middle = (left + right) / 2;
+				computeColumn(middle, bottom + 1, top - 1);
+				subdivide(left, bottom, middle, top);
+				subdivide(middle, bottom, right, top);
+			} else {
+				int middle = (bottom + top) / 2;
+				computeRow(middle, left + 1, right - 1);
+				subdivide(left, bottom, right, middle);
+				subdivide(left, middle, right, top);
+			}
+		}
+
+		/*
+		 * Returns the count shared by every pixel on the border of the
+		 * rectangle, or -1 if the border is not uniform
+		 */
+		private int getUniformBorderValue(int left, int bottom, int right,
+				int top) {
+			int value = getValue(left, bottom);
+			for (int i = left; i <= right; i++) {
+				if (getValue(i, bottom) != value || getValue(i, top) != value) {
+					return -1;
+				}
+			}
+			for (int j = bottom + 1; j < top; j++) {
+				if (getValue(left, j) != value || getValue(right, j) != value) {
+					return -1;
+				}
+			}
+			return value;
+		}
+
+		private void computeRow(int j, int fromColumn, int toColumn) {
+			for (int i = fromColumn; i <= toColumn; i++) {
+				setValue(i, j, MandelbrotSetTask.escapeTime(xValues[i],
+						yValues[j], iterLimit));
+			}
+		}
+
+		private void computeColumn(int i, int fromRow, int toRow) {
+			for (int j = fromRow; j <= toRow; j++) {
+				setValue(i, j, MandelbrotSetTask.escapeTime(xValues[i],
+						yValues[j], iterLimit));
+			}
+		}
+
+		// Rows are counted from the bottom of the tile, as in the complex plane
+		private int getValue(int i, int j) {
+			return tile.getValue(i, tile.getHeight() - 1 - j);
+		}
+
+		private void setValue(int i, int j, int value) {
+			tile.setValue(i, tile.getHeight() - 1 - j, value);
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package tasks;
+
+import tasks.MandelbrotSetTask.MandelbrotSetTaskResult;
+
+/**
+ * Computes the escape time of one pixel at a time with
+ * {@link tasks.MandelbrotSetTask#escapeTime(double, double, int)
+ * MandelbrotSetTask.escapeTime}. Used whenever the Vector API is not available.
+ *
+ * @author Manasa Chandrasekhar
+ * @author Kowshik Prakasam
+ */
+public class ScalarMandelbrotKernel implements MandelbrotKernel {
+
+	@Override
+	public void computeTile(MandelbrotSetTaskResult tile, double[] xValues,
+			double[] yValues, double jump, int iterLimit) {
+		int width = tile.getWidth();
+		int height = tile.getHeight();
+		for (int i = 0; i < width; i++) {
+			for (int j = 0; j < height; j++) {
+				tile.setValue(i, height - 1 - j, MandelbrotSetTask.escapeTime(
+						xValues[i], yValues[j], iterLimit));
+			}
+		}
+	}
+}
@@ -1,32 +1,46 @@
 package tasks;
 
-import java.io.Serializable;
-import java.util.List;
-import java.util.Vector;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 
 import api.Task;
+import api.TaskId;
 
 /**
  * Models properties of a generic divide and conquer task
  * 
+ * Tasks are shipped to computers on every remote call, so they are encoded by
+ * hand rather than by default serialization : subclasses extend
+ * {@link #writeExternal(ObjectOutput) writeExternal} and
+ * {@link #readExternal(ObjectInput) readExternal} with their own fields, and
+ * must declare a public no-argument constructor.
+ * 
  * @author Manasa Chandrasekhar
  * @author Kowshik Prakasam
  */
-public abstract class TaskBase<T> implements Task<T>, Serializable {
+public abstract class TaskBase<T> implements Task<T>, Externalizable {
 
 	private static final long serialVersionUID = -139155829609653917L;
 
 	private Status status;
-	private String parentId;
-	private String taskId;
+	private long parentId;
+	private long taskId;
+	private long jobId;
 	private long startTime;
-	protected static final String ID_DELIM = "-";
 	protected static final int DEFAULT_TASK_LEVEL = 0;
 	protected static final int DEFAULT_CHILD_LEVEL = 0;
-	protected static final String DEFAULT_TASK_ID = DEFAULT_TASK_LEVEL
-			+ ID_DELIM + DEFAULT_CHILD_LEVEL;
+	protected static final long DEFAULT_TASK_ID = TaskId.valueOf(
+			DEFAULT_TASK_LEVEL, DEFAULT_CHILD_LEVEL);
+
+	/**
+	 * Used by deserialization only
+	 */
+	protected TaskBase() {
+	}
 
-	public TaskBase(String taskId, String parentId, Status status,
+	public TaskBase(long taskId, long parentId, Status status,
 			long startTime) {
 		setId(taskId);
 		setParentId(parentId);
@@ -45,40 +59,55 @@ public abstract class TaskBase<T> implements Task<T>, Serializable {
 	}
 
 	@Override
-	public String getParentId() {
+	public long getParentId() {
 		return this.parentId;
 	}
 
 	@Override
-	public void setParentId(String id) {
+	public void setParentId(long id) {
 		this.parentId = id;
 	}
 
 	@Override
-	public String getId() {
+	public long getId() {
 		return this.taskId;
 	}
 
 	@Override
-	public void setId(String taskId) {
+	public void setId(long taskId) {
 		this.taskId = taskId;
 	}
 
 	@Override
-	public List<String> getChildIds() {
-		String[] parts = this.getId().split(ID_DELIM);
-		int newLevel = Integer.parseInt(parts[0]) + 1;
-		List<String> ids = new Vector<String>();
-		int childBase = Integer.parseInt(parts[1])
-				* this.getDecompositionSize();
-		for (int childNumber = childBase; childNumber < childBase
-				+ this.getDecompositionSize(); childNumber++) {
-			String childId = newLevel + ID_DELIM + childNumber;
-			ids.add(childId);
+	public long getJobId() {
+		return this.jobId;
+	}
+
+	@Override
+	public void setJobId(long jobId) {
+		this.jobId = jobId;
+	}
+
+	@Override
+	public long[] getChildIds() {
+		int decompositionSize = this.getDecompositionSize();
+		long[] ids = new long[decompositionSize];
+		for (int childNumber = 0; childNumber < decompositionSize; childNumber++) {
+			ids[childNumber] = TaskId.getChildId(this.getId(),
+					decompositionSize, childNumber);
 		}
 		return ids;
 	}
 
+	/**
+	 * Tasks are distributed down to the base case of the recursion, unless a
+	 * subclass defines a sequential cutoff
+	 */
+	@Override
+	public boolean isSequential() {
+		return false;
+	}
+
 	public void setStartTime(long startTime) {
 		this.startTime = startTime;
 	}
@@ -87,15 +116,40 @@ public abstract class TaskBase<T> implements Task<T>, Serializable {
 		return startTime;
 	}
 
-	protected void init(Task.Status s, String taskId, String parentId) {
+	protected void init(Task.Status s, long taskId, long parentId) {
 		this.setStatus(s);
 		this.setId(taskId);
 		this.setParentId(parentId);
 	}
 
 	protected int getTaskLevel() {
-		String[] parts = this.getId().split(ID_DELIM);
-		int level = Integer.parseInt(parts[0]);
-		return level;
+		return TaskId.getLevel(this.getId());
+	}
+
+	/**
+	 * Writes the state shared by all tasks. Subclasses write their own fields
+	 * after calling this method.
+	 */
+	@Override
+	public void writeExternal(ObjectOutput out) throws IOException {
+		out.writeByte(status.ordinal());
+		out.writeLong(taskId);
+		out.writeLong(parentId);
+		out.writeLong(jobId);
+		out.writeLong(startTime);
+	}
+
+	/**
+	 * Reads the state written by {@link #writeExternal(ObjectOutput)
+	 * writeExternal}
+	 */
+	@Override
+	public void readExternal(ObjectInput in) throws IOException,
+			ClassNotFoundException {
+		status = Status.values()[in.readByte()];
+		taskId = in.readLong();
+		parentId = in.readLong();
+		jobId = in.readLong();
+		startTime = in.readLong();
 	}
 }
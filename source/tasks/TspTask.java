@@ -1,7 +1,12 @@
 package tasks;
 
 import java.awt.geom.Point2D;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Vector;
@@ -28,13 +33,19 @@ public class TspTask extends TaskBase<List<TspTask.City>> implements
 	 * @author Manasa Chandrasekhar
 	 * @author Kowshik Prakasam*
 	 */
-	public class City implements Serializable {
+	public static class City implements Externalizable {
 
 		private static final long serialVersionUID = -8660442769258565881L;
 		private double x;
 		private double y;
 		private int label;
 
+		/**
+		 * Used by deserialization only
+		 */
+		public City() {
+		}
+
 		public City(int label, double x, double y) {
 			this.x = x;
 			this.y = y;
@@ -74,6 +85,21 @@ public class TspTask extends TaskBase<List<TspTask.City>> implements
 			return this.getLabel() == (((City) c).getLabel());
 		}
 
+		@Override
+		public void writeExternal(ObjectOutput out) throws IOException {
+			out.writeInt(label);
+			out.writeDouble(x);
+			out.writeDouble(y);
+		}
+
+		@Override
+		public void readExternal(ObjectInput in) throws IOException,
+				ClassNotFoundException {
+			label = in.readInt();
+			x = in.readDouble();
+			y = in.readDouble();
+		}
+
 	}
 
 	private static final long serialVersionUID = 3276207466199157936L;
@@ -82,6 +108,12 @@ public class TspTask extends TaskBase<List<TspTask.City>> implements
 	private static final int NUMBER_OF_LEVELS = 2;
 	private int numberOfChildren;
 
+	/**
+	 * Used by deserialization only
+	 */
+	public TspTask() {
+	}
+
 	/**
 	 * @param cities
 	 *            Represents the x and y coordinates of cities. cities[i][0] is
@@ -101,8 +133,8 @@ public class TspTask extends TaskBase<List<TspTask.City>> implements
 		this.numberOfChildren = citiesList.size() - 1;
 	}
 
-	private TspTask(City startCity, List<City> citiesList, String taskId,
-			String parentId, Task.Status s) {
+	private TspTask(City startCity, List<City> citiesList, long taskId,
+			long parentId, Task.Status s) {
 		super(taskId, parentId, Task.Status.DECOMPOSE, System
 				.currentTimeMillis());
 		this.citiesList = citiesList;
@@ -120,12 +152,12 @@ public class TspTask extends TaskBase<List<TspTask.City>> implements
 		if (level < NUMBER_OF_LEVELS) {
 
 			List<Task<List<City>>> subTasks = new Vector<Task<List<City>>>();
-			List<String> childIds = this.getChildIds();
+			long[] childIds = this.getChildIds();
 			int childIndex = 0;
 			for (int i = 0; i < citiesList.size(); i++) {
 				if (!citiesList.get(i).equals(this.startCity)) {
 					City newStartCity = citiesList.get(i);
-					String childId = childIds.get(childIndex);
+					long childId = childIds[childIndex];
 					childIndex++;
 					List<City> childCities = new Vector<City>();
 					for (int j = 0; j < citiesList.size(); j++) {
@@ -268,6 +300,34 @@ public class TspTask extends TaskBase<List<TspTask.City>> implements
 				System.currentTimeMillis(), chosenMinRoute);
 	}
 
+	/**
+	 * Cities are written as objects, so that cities shared by the tasks of a
+	 * batch or a decomposition are sent only once
+	 */
+	@Override
+	public void writeExternal(ObjectOutput out) throws IOException {
+		super.writeExternal(out);
+		out.writeInt(numberOfChildren);
+		out.writeObject(startCity);
+		out.writeInt(citiesList.size());
+		for (City aCity : citiesList) {
+			out.writeObject(aCity);
+		}
+	}
+
+	@Override
+	public void readExternal(ObjectInput in) throws IOException,
+			ClassNotFoundException {
+		super.readExternal(in);
+		numberOfChildren = in.readInt();
+		startCity = (City) in.readObject();
+		int numOfCities = in.readInt();
+		citiesList = new ArrayList<City>(numOfCities);
+		for (int cityIndex = 0; cityIndex < numOfCities; cityIndex++) {
+			citiesList.add((City) in.readObject());
+		}
+	}
+
 	private double findRouteLength(List<City> aListOfCities) {
 		double length = 0;
 		int i;
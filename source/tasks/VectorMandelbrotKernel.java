@@ -0,0 +1,279 @@
+package tasks;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import tasks.MandelbrotSetTask.MandelbrotSetTaskResult;
+
+/**
+ * Computes the escape times of a whole vector of pixels at a time with the
+ * incubating Vector API, so that the JIT compiler can map every step of the
+ * iteration onto SIMD instructions. The lanes of a vector are consecutive
+ * pixels of a column of the tile, and iterate until every lane has escaped,
+ * has been found to be periodic or has reached the iteration limit.
+ *
+ * Lanes hold doubles by default, and follow exactly the same arithmetic as
+ * {@link tasks.MandelbrotSetTask#escapeTime(double, double, int)
+ * MandelbrotSetTask.escapeTime}, so that their counts are identical to those
+ * of the scalar kernel. At shallow zoom, where neighbouring pixels are at
+ * least {@value #SHALLOW_ZOOM_JUMP} apart, lanes hold floats instead and twice
+ * as many pixels are computed per instruction. The counts of float lanes can
+ * then differ from the scalar kernel for pixels close to the boundary of the
+ * set, which are not resolved at that zoom anyway.
+ *
+ * This class is only loaded when the jdk.incubator.vector module is present,
+ * see {@link tasks.MandelbrotSetTask#getKernel() MandelbrotSetTask.getKernel}.
+ *
+ * @author Manasa Chandrasekhar
+ * @author Kowshik Prakasam
+ */
+public class VectorMandelbrotKernel implements MandelbrotKernel {
+
+	/**
+	 * Smallest pixel spacing at which float lanes are used
+	 */
+	public static final double SHALLOW_ZOOM_JUMP = 1.0 / 4096;
+
+	private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+	/*
+	 * Number of iterations between two checks for cycles and finished vectors
+	 */
+	private static final int BLOCK = MandelbrotSetTask.FIRST_CYCLE_CHECK;
+	private static final float MANDELBROT_LIMIT_SQUARED_FLOAT = (float)
+			MandelbrotSetTask.MANDELBROT_LIMIT_SQUARED;
+
+	private boolean floatLanes;
+
+	/**
+	 * Creates a kernel that uses float lanes at shallow zoom
+	 *
+	 * @throws UnsupportedOperationException
+	 *             If the platform cannot hold more than one double in a vector
+	 */
+	public VectorMandelbrotKernel() {
+		this(true);
+	}
+
+	/**
+	 *
+	 * @param floatLanes
+	 *            Whether float lanes are used at shallow zoom. If false,
+	 *            counts are always identical to those of the scalar kernel.
+	 * @throws UnsupportedOperationException
+	 *             If the platform cannot hold more than one double in a vector
+	 */
+	public VectorMandelbrotKernel(boolean floatLanes) {
+		if (DOUBLES.length() < 2) {
+			throw new UnsupportedOperationException(
+					"No SIMD support for double vectors");
+		}
+		this.floatLanes = floatLanes;
+	}
+
+	@Override
+	public void computeTile(MandelbrotSetTaskResult tile, double[] xValues,
+			double[] yValues, double jump, int iterLimit) {
+		if (floatLanes && jump >= SHALLOW_ZOOM_JUMP) {
+			computeWithFloats(tile, xValues, yValues, iterLimit);
+		} else {
+			computeWithDoubles(tile, xValues, yValues, iterLimit);
+		}
+	}
+
+	private void computeWithDoubles(MandelbrotSetTaskResult tile,
+			double[] xValues, double[] yValues, int iterLimit) {
+		int width = tile.getWidth();
+		int height = tile.getHeight();
+		int lanes = DOUBLES.length();
+		double[] counts = new double[lanes];
+		double[] saved = new double[2 * lanes];
+		for (int i = 0; i < width; i++) {
+			double xIndex = xValues[i];
+			int j = 0;
+			for (; j + lanes <= height; j += lanes) {
+				escapeTimes(xIndex, yValues, j, iterLimit, counts, saved);
+				for (int lane = 0; lane < lanes; lane++) {
+					tile.setValue(i, height - 1 - j - lane, (int) counts[lane]);
+				}
+			}
+			for (; j < height; j++) {
+				tile.setValue(i, height - 1 - j, MandelbrotSetTask.escapeTime(
+						xIndex, yValues[j], iterLimit));
+			}
+		}
+	}
+
+	private void computeWithFloats(MandelbrotSetTaskResult tile,
+			double[] xValues, double[] yValues, int iterLimit) {
+		int width = tile.getWidth();
+		int height = tile.getHeight();
+		int lanes = FLOATS.length();
+		float[] yFloats = new float[height];
+		for (int j = 0; j < height; j++) {
+			yFloats[j] = (float) yValues[j];
+		}
+		float[] counts = new float[lanes];
+		float[] saved = new float[2 * lanes];
+		for (int i = 0; i < width; i++) {
+			double xIndex = xValues[i];
+			int j = 0;
+			for (; j + lanes <= height; j += lanes) {
+				escapeTimes((float) xIndex, yFloats, j, iterLimit, counts,
+						saved);
+				for (int lane = 0; lane < lanes; lane++) {
+					tile.setValue(i, height - 1 - j - lane, (int) counts[lane]);
+				}
+			}
+			for (; j < height; j++) {
+				tile.setValue(i, height - 1 - j, MandelbrotSetTask.escapeTime(
+						xIndex, yValues[j], iterLimit));
+			}
+		}
+	}
+
+	/*
+	 * Lane by lane equivalent of MandelbrotSetTask.escapeTime, for the points
+	 * cReal + i * cImaginaries[offset + lane]. The JIT compiler boxes masks
+	 * and vectors that are conditionally reassigned within the loop, so only
+	 * the orbit and the count are carried in vectors, while the snapshot of
+	 * the orbit lives in the scratch array saved. A lane counts the iterations
+	 * at which its orbit is still bounded : escaped orbits grow without bound,
+	 * so that an escaped lane never counts again. Lanes that are known to be
+	 * in the set are flagged with an infinite value, and the vector stops
+	 * iterating once every lane has escaped or is flagged. Since periodic
+	 * orbits never escape, cycles only decide when to stop, and are looked
+	 * for once per block of iterations.
+	 */
+	private static void escapeTimes(double cReal, double[] cImaginaries,
+			int offset, int iterLimit, double[] counts, double[] saved) {
+		int lanes = DOUBLES.length();
+		DoubleVector cr = DoubleVector.broadcast(DOUBLES, cReal);
+		DoubleVector ci = DoubleVector.fromArray(DOUBLES, cImaginaries, offset);
+		DoubleVector zero = DoubleVector.zero(DOUBLES);
+		DoubleVector one = DoubleVector.broadcast(DOUBLES, 1);
+		DoubleVector limit = DoubleVector.broadcast(DOUBLES,
+				MandelbrotSetTask.MANDELBROT_LIMIT_SQUARED);
+		DoubleVector infinity = DoubleVector.broadcast(DOUBLES,
+				Double.POSITIVE_INFINITY);
+
+		// Main cardioid and period-2 bulb
+		DoubleVector imaginarySquared = ci.mul(ci);
+		DoubleVector shiftedReal = cr.sub(0.25);
+		DoubleVector q = shiftedReal.mul(shiftedReal).add(imaginarySquared);
+		DoubleVector bulbReal = cr.add(1);
+		DoubleVector inSet = zero.blend(infinity, q.mul(q.add(shiftedReal)).compare(
+				VectorOperators.LT, imaginarySquared.mul(0.25)));
+		inSet = inSet.blend(infinity, bulbReal.mul(bulbReal).add(
+				imaginarySquared).compare(VectorOperators.LT, 0.0625));
+
+		DoubleVector zReal = cr;
+		DoubleVector zComplex = ci;
+		DoubleVector count = zero;
+		zReal.intoArray(saved, 0);
+		zComplex.intoArray(saved, lanes);
+		int cycleCheck = 1;
+		int sinceSaved = 0;
+		int k = 0;
+		while (k < iterLimit) {
+			DoubleVector zRealSquared = zReal.mul(zReal);
+			DoubleVector zComplexSquared = zComplex.mul(zComplex);
+			// Also false for orbits that have overflowed to NaN
+			count = count.add(zero.blend(one, zRealSquared.add(zComplexSquared)
+					.compare(VectorOperators.LE, limit)));
+			zComplex = zReal.mul(2).mul(zComplex).add(ci);
+			zReal = zRealSquared.sub(zComplexSquared).add(cr);
+			if (++k % BLOCK == 0) {
+				// Differences of finite values are zero only if they are equal
+				inSet = inSet.blend(infinity, zReal.sub(
+						DoubleVector.fromArray(DOUBLES, saved, 0)).abs().add(
+						zComplex.sub(DoubleVector.fromArray(DOUBLES, saved, lanes))
+								.abs()).compare(VectorOperators.EQ, zero));
+				if (!zReal.mul(zReal).add(zComplex.mul(zComplex)).add(inSet)
+						.compare(VectorOperators.LE, limit).anyTrue()) {
+					break;
+				}
+				if (++sinceSaved == cycleCheck) {
+					zReal.intoArray(saved, 0);
+					zComplex.intoArray(saved, lanes);
+					sinceSaved = 0;
+					cycleCheck *= 2;
+				}
+			}
+		}
+		// Lanes that counted every iteration escaped at k or never did
+		DoubleVector result = count.blend(infinity, count.compare(
+				VectorOperators.EQ, k));
+		result = result.blend(count, zReal.mul(zReal).add(zComplex.mul(zComplex))
+				.compare(VectorOperators.GT, limit));
+		result.min(iterLimit).intoArray(counts, 0);
+	}
+
+	/*
+	 * Single precision version of escapeTimes, whose counts are exact as long
+	 * as the iteration limit is below 2^24
+	 */
+	private static void escapeTimes(float cReal, float[] cImaginaries,
+			int offset, int iterLimit, float[] counts, float[] saved) {
+		int lanes = FLOATS.length();
+		FloatVector cr = FloatVector.broadcast(FLOATS, cReal);
+		FloatVector ci = FloatVector.fromArray(FLOATS, cImaginaries, offset);
+		FloatVector zero = FloatVector.zero(FLOATS);
+		FloatVector one = FloatVector.broadcast(FLOATS, 1);
+		FloatVector limit = FloatVector.broadcast(FLOATS,
+				MANDELBROT_LIMIT_SQUARED_FLOAT);
+		FloatVector infinity = FloatVector.broadcast(FLOATS, Float.POSITIVE_INFINITY);
+
+		// Main cardioid and period-2 bulb
+		FloatVector imaginarySquared = ci.mul(ci);
+		FloatVector shiftedReal = cr.sub(0.25f);
+		FloatVector q = shiftedReal.mul(shiftedReal).add(imaginarySquared);
+		FloatVector bulbReal = cr.add(1);
+		FloatVector inSet = zero.blend(infinity, q.mul(q.add(shiftedReal)).compare(
+				VectorOperators.LT, imaginarySquared.mul(0.25f)));
+		inSet = inSet.blend(infinity, bulbReal.mul(bulbReal).add(
+				imaginarySquared).compare(VectorOperators.LT, 0.0625f));
+
+		FloatVector zReal = cr;
+		FloatVector zComplex = ci;
+		FloatVector count = zero;
+		zReal.intoArray(saved, 0);
+		zComplex.intoArray(saved, lanes);
+		int cycleCheck = 1;
+		int sinceSaved = 0;
+		int k = 0;
+		while (k < iterLimit) {
+			FloatVector zRealSquared = zReal.mul(zReal);
+			FloatVector zComplexSquared = zComplex.mul(zComplex);
+			// Also false for orbits that have overflowed to NaN
+			count = count.add(zero.blend(one, zRealSquared.add(zComplexSquared)
+					.compare(VectorOperators.LE, limit)));
+			zComplex = zReal.mul(2).mul(zComplex).add(ci);
+			zReal = zRealSquared.sub(zComplexSquared).add(cr);
+			if (++k % BLOCK == 0) {
+				// Differences of finite values are zero only if they are equal
+				inSet = inSet.blend(infinity, zReal.sub(
+						FloatVector.fromArray(FLOATS, saved, 0)).abs().add(
+						zComplex.sub(FloatVector.fromArray(FLOATS, saved, lanes))
+								.abs()).compare(VectorOperators.EQ, zero));
+				if (!zReal.mul(zReal).add(zComplex.mul(zComplex)).add(inSet)
+						.compare(VectorOperators.LE, limit).anyTrue()) {
+					break;
+				}
+				if (++sinceSaved == cycleCheck) {
+					zReal.intoArray(saved, 0);
+					zComplex.intoArray(saved, lanes);
+					sinceSaved = 0;
+					cycleCheck *= 2;
+				}
+			}
+		}
+		// Lanes that counted every iteration escaped at k or never did
+		FloatVector result = count.blend(infinity, count.compare(
+				VectorOperators.EQ, k));
+		result = result.blend(count, zReal.mul(zReal).add(zComplex.mul(zComplex))
+				.compare(VectorOperators.GT, limit));
+		result.min(iterLimit).intoArray(counts, 0);
+	}
+}